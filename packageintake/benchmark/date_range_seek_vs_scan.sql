@@ -0,0 +1,158 @@
+-- Seek-vs-scan benchmark for the date filters (see V11__Add_Inbound_Shipments_Date_Indexes.sql).
+--
+-- Seeds a temp-table copy of the Inbound_Shipments date columns, indexes it the same way
+-- V11 does, and runs each filter in its old form (CAST(col AS DATE) compared to a date) and its
+-- new half-open form (col >= @from AND col < @to + 1 day). Run it in SSMS or sqlcmd against a
+-- non-production server:
+--
+--   sqlcmd -S <server> -d <database> -i benchmark/date_range_seek_vs_scan.sql
+--
+-- Compare the "Table '#Bench_Inbound_Shipments'" logical reads printed by STATISTICS IO and the
+-- elapsed times in the summary. The first row ("no index") is the clustered scan every date
+-- filter did before V11. With "Include Actual Execution Plan" on, the half-open form is a plain
+-- Index Seek. SQL Server can sometimes rewrite CAST(datetime AS DATE) into a dynamic range seek;
+-- when it does, the CAST form still reads more pages and gets worse row estimates, and any other
+-- wrapping expression falls back to a scan. Adjust @rows to match the production size.
+
+SET NOCOUNT ON;
+
+DECLARE @rows INT = 1000000;
+DECLARE @iterations INT = 20;
+
+IF OBJECT_ID('tempdb..#Bench_Inbound_Shipments') IS NOT NULL
+    DROP TABLE #Bench_Inbound_Shipments;
+
+CREATE TABLE #Bench_Inbound_Shipments (
+    Row_ID BIGINT IDENTITY(1,1) PRIMARY KEY,
+    Tracking_Number NVARCHAR(100) NULL,
+    Ship_Date DATE NULL,
+    Email_Receive_Datetime DATETIME NULL,
+    Last_Update_Datetime DATETIME NULL,
+    Scan_Time DATETIME NULL
+);
+
+-- About three years of traffic, arriving in Row_ID order like the real table; a quarter unscanned
+WITH n AS (
+    SELECT TOP (@rows) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i
+    FROM sys.all_objects a CROSS JOIN sys.all_objects b CROSS JOIN sys.all_objects c
+)
+INSERT INTO #Bench_Inbound_Shipments (Tracking_Number, Ship_Date, Email_Receive_Datetime, Last_Update_Datetime, Scan_Time)
+SELECT
+    CONCAT('1Z', RIGHT(CONCAT('0000000000000000', i), 16)),
+    CAST(DATEADD(minute, i * 3 / 2, '2023-01-01') AS DATE),
+    DATEADD(minute, i * 3 / 2, '2023-01-01'),
+    DATEADD(minute, i * 3 / 2 + 90, '2023-01-01'),
+    CASE WHEN i % 4 = 0 THEN NULL ELSE DATEADD(minute, i * 3 / 2 + 2880, '2023-01-01') END
+FROM n;
+
+-- A one-week window in the middle of the data, the shape of a typical dashboard query
+DECLARE @from DATE = '2024-03-04';
+DECLARE @to DATE = '2024-03-10';
+
+DECLARE @results TABLE (Filter NVARCHAR(40), Predicate NVARCHAR(20), Matched INT, Avg_Ms DECIMAL(10, 2));
+DECLARE @i INT;
+DECLARE @matched INT;
+DECLARE @start DATETIME2;
+
+SET STATISTICS IO ON;
+
+-- Baseline: no date index, so any predicate scans the clustered index
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE Scan_Time >= @from AND Scan_Time < DATEADD(day, 1, @to);
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Scan_Time', 'no index', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+SET STATISTICS IO OFF;
+
+CREATE NONCLUSTERED INDEX IX_Bench_Scan_Time ON #Bench_Inbound_Shipments (Scan_Time);
+CREATE NONCLUSTERED INDEX IX_Bench_Ship_Date ON #Bench_Inbound_Shipments (Ship_Date);
+CREATE NONCLUSTERED INDEX IX_Bench_Email_Receive_Datetime ON #Bench_Inbound_Shipments (Email_Receive_Datetime);
+CREATE NONCLUSTERED INDEX IX_Bench_Last_Update_Datetime ON #Bench_Inbound_Shipments (Last_Update_Datetime);
+
+SET STATISTICS IO ON;
+
+-- Scan_Time
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE CAST(Scan_Time AS DATE) >= @from AND CAST(Scan_Time AS DATE) <= @to;
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Scan_Time', 'CAST', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE Scan_Time >= @from AND Scan_Time < DATEADD(day, 1, @to);
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Scan_Time', 'half-open', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+-- Email_Receive_Datetime
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE CAST(Email_Receive_Datetime AS DATE) >= @from AND CAST(Email_Receive_Datetime AS DATE) <= @to;
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Email_Receive_Datetime', 'CAST', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE Email_Receive_Datetime >= @from AND Email_Receive_Datetime < DATEADD(day, 1, @to);
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Email_Receive_Datetime', 'half-open', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+-- Last_Update_Datetime
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE CAST(Last_Update_Datetime AS DATE) >= @from AND CAST(Last_Update_Datetime AS DATE) <= @to;
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Last_Update_Datetime', 'CAST', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE Last_Update_Datetime >= @from AND Last_Update_Datetime < DATEADD(day, 1, @to);
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Last_Update_Datetime', 'half-open', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+-- Ship_Date is a DATE column, so it was already sargable; measured for completeness
+SELECT @i = 0, @start = SYSDATETIME();
+WHILE @i < @iterations
+BEGIN
+    SELECT @matched = COUNT(*) FROM #Bench_Inbound_Shipments
+    WHERE Ship_Date >= @from AND Ship_Date <= @to;
+    SET @i += 1;
+END;
+INSERT INTO @results VALUES ('Ship_Date', 'range', @matched, DATEDIFF(microsecond, @start, SYSDATETIME()) / 1000.0 / @iterations);
+
+-- Full page as the search endpoint reads it: the key lookups only happen for matching rows
+SELECT TOP (20) Row_ID, Tracking_Number, Scan_Time FROM #Bench_Inbound_Shipments
+WHERE CAST(Scan_Time AS DATE) >= @from AND CAST(Scan_Time AS DATE) <= @to
+ORDER BY Row_ID DESC;
+
+SELECT TOP (20) Row_ID, Tracking_Number, Scan_Time FROM #Bench_Inbound_Shipments
+WHERE Scan_Time >= @from AND Scan_Time < DATEADD(day, 1, @to)
+ORDER BY Row_ID DESC;
+
+SET STATISTICS IO OFF;
+
+SELECT Filter, Predicate, Matched, Avg_Ms FROM @results;
+
+DROP TABLE #Bench_Inbound_Shipments;
@@ -25,5 +25,21 @@ sudo systemctl daemon-reload
 sudo systemctl enable packageintake
 sudo systemctl start packageintake
 
+# Wait for the readiness probe, which turns UP only after the startup warm-up
+ready=false
+for i in $(seq 1 60); do
+    if curl -sf http://localhost:8080/actuator/health/readiness > /dev/null; then
+        echo "Service is ready"
+        ready=true
+        break
+    fi
+    sleep 5
+done
+if [ "$ready" != true ]; then
+    echo "Service did not become ready within 5 minutes"
+    sudo systemctl status packageintake --no-pager || true
+    exit 1
+fi
+
 # Check status
 sudo systemctl status packageintake 
\ No newline at end of file
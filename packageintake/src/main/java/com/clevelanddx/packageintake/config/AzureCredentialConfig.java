@@ -0,0 +1,34 @@
+package com.clevelanddx.packageintake.config;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.identity.ClientSecretCredentialBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// The credential behind AzureTokenProvider, built once so its HTTP client and MSAL token cache are reused
+// across refreshes. azure.credential.type=stub swaps in StubTokenCredential to run without Entra ID.
+@Configuration
+public class AzureCredentialConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "azure.credential.type", havingValue = "client-secret", matchIfMissing = true)
+    public TokenCredential azureCredential(@Value("${azure.tenant-id}") String tenantId,
+                                           @Value("${azure.client-id}") String clientId,
+                                           @Value("${azure.client-secret}") String clientSecret) {
+        return new ClientSecretCredentialBuilder()
+                .tenantId(tenantId)
+                .clientId(clientId)
+                .clientSecret(clientSecret)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "azure.credential.type", havingValue = "stub")
+    public TokenCredential stubAzureCredential(@Value("${azure.credential.stub-lifetime-ms:3600000}") long lifetimeMs) {
+        return new StubTokenCredential(Duration.ofMillis(lifetimeMs));
+    }
+}
@@ -1,34 +1,37 @@
 package com.clevelanddx.packageintake.config;
 
 import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
-import com.microsoft.sqlserver.jdbc.SQLServerException;
 import com.microsoft.sqlserver.jdbc.SQLServerAccessTokenCallback;
 import com.microsoft.sqlserver.jdbc.SqlAuthenticationToken;
-import org.springframework.beans.factory.annotation.Value;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 
 import javax.sql.DataSource;
 
 @Configuration
 public class AzureSqlDataSourceConfig {
 
-    @Value("${spring.datasource.url}")
-    private String url;
-
     private final AzureTokenProvider tokenProvider;
 
     public AzureSqlDataSourceConfig(AzureTokenProvider tokenProvider) {
         this.tokenProvider = tokenProvider;
     }
 
+    // HikariCP pool over the token-authenticated SQL Server data source, so a transaction borrows an open
+    // connection instead of a new TLS login and token callback each time. Settings come from
+    // spring.datasource.hikari.* (Boot does not bind them itself once this bean replaces its own), with
+    // the defaults below. Boot's actuator binds the pool metrics (hikaricp.connections.*).
     @Bean
     @Primary
-    public DataSource dataSource() {
+    public DataSource dataSource(Environment environment) {
         SQLServerDataSource dataSource = new SQLServerDataSource();
-        dataSource.setURL(url);
-        
+        dataSource.setURL(environment.getRequiredProperty("spring.datasource.url"));
+
         // Set up a custom connection factory that handles token expiration
         dataSource.setAccessTokenCallback(new SQLServerAccessTokenCallback() {
             @Override
@@ -37,7 +40,22 @@ public class AzureSqlDataSourceConfig {
                 return new SqlAuthenticationToken(token, null);
             }
         });
-        
-        return dataSource;
+
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("packageintake");
+        pool.setMaximumPoolSize(20);
+        pool.setMinimumIdle(5);
+        pool.setConnectionTimeout(30_000);
+        pool.setValidationTimeout(5_000);
+        pool.setIdleTimeout(600_000);
+        pool.setKeepaliveTime(300_000);
+        // Azure SQL checks the access token only at login; retiring connections well within a token's
+        // lifetime (60 min) keeps every pooled session on a recent token
+        pool.setMaxLifetime(2_700_000);
+        pool.setLeakDetectionThreshold(60_000);
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        // Connections come from the token data source, never from a JDBC URL and password
+        pool.setDataSource(dataSource);
+        return pool;
     }
-} 
\ No newline at end of file
+}
@@ -1,77 +1,205 @@
 package com.clevelanddx.packageintake.config;
 
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
 import com.azure.core.credential.TokenRequestContext;
-import com.azure.identity.ClientSecretCredential;
-import com.azure.identity.ClientSecretCredentialBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+// Entra ID access tokens for Azure SQL logins. The credential is built once (AzureCredentialConfig) and a
+// background thread fetches the next token ahead of the current one's expiresAt, so connection threads
+// read the cached token without locking. A caller only waits on Entra ID when no usable token exists
+// (first login, or every refresh since the last token expired has failed), and concurrent waiters share
+// one request. Failed background refreshes are retried with jittered exponential backoff while the
+// current token stays in use. Metrics: azure.token.refresh (latency, tagged outcome) and
+// azure.token.expires.in (seconds left on the current token).
 @Component
 public class AzureTokenProvider {
-    private final String tenantId;
-    private final String clientId;
-    private final String clientSecret;
-    private final AtomicReference<String> tokenCache = new AtomicReference<>();
-    private final AtomicReference<Instant> tokenExpiry = new AtomicReference<>();
-
-    public AzureTokenProvider(
-            @Value("${azure.tenant-id}") String tenantId,
-            @Value("${azure.client-id}") String clientId,
-            @Value("${azure.client-secret}") String clientSecret) {
-        this.tenantId = tenantId;
-        this.clientId = clientId;
-        this.clientSecret = clientSecret;
+
+    private static final Logger log = LoggerFactory.getLogger(AzureTokenProvider.class);
+
+    static final String SCOPE = "https://database.windows.net/.default";
+    private static final long RETRY_BASE_MS = 1_000;
+    // Not handed out for a new login this close to expiry
+    private static final Duration MIN_REMAINING = Duration.ofSeconds(30);
+
+    private record CachedToken(String token, Instant expiresAt, Instant refreshAt) {
+    }
+
+    private final TokenCredential credential;
+    private final TokenRequestContext requestContext = new TokenRequestContext().addScopes(SCOPE);
+    private final Clock clock;
+    private final Duration refreshAhead;
+    private final Duration requestTimeout;
+    private final long maxBackoffMs;
+    private final Timer refreshSucceeded;
+    private final Timer refreshFailed;
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+    private volatile CachedToken current;
+    // Touched by the refresh thread only
+    private int failedAttempts;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public AzureTokenProvider(TokenCredential credential, MeterRegistry meterRegistry,
+                              @Value("${azure.token.refresh-ahead-ms:300000}") long refreshAheadMs,
+                              @Value("${azure.token.request-timeout-ms:30000}") long requestTimeoutMs,
+                              @Value("${azure.token.max-backoff-ms:60000}") long maxBackoffMs) {
+        this(credential, meterRegistry, Clock.systemUTC(), refreshAheadMs, requestTimeoutMs, maxBackoffMs);
+    }
+
+    AzureTokenProvider(TokenCredential credential, MeterRegistry meterRegistry, Clock clock,
+                       long refreshAheadMs, long requestTimeoutMs, long maxBackoffMs) {
+        this.credential = credential;
+        this.clock = clock;
+        this.refreshAhead = Duration.ofMillis(refreshAheadMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxBackoffMs = Math.max(RETRY_BASE_MS, maxBackoffMs);
+        this.refreshSucceeded = Timer.builder("azure.token.refresh")
+                .description("Time to obtain an Azure AD token for Azure SQL")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.refreshFailed = Timer.builder("azure.token.refresh")
+                .description("Time to obtain an Azure AD token for Azure SQL")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        Gauge.builder("azure.token.expires.in", this, AzureTokenProvider::secondsRemaining)
+                .description("Seconds until the current Azure AD token expires")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "azure-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // First fetch starts now; the data source's first login joins it instead of issuing its own
+        scheduler.execute(this::refreshAndReschedule);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
     }
 
     public String getToken() {
-        Instant now = Instant.now();
-        Instant expiry = tokenExpiry.get();
-
-        // If token is null or expired (with 5-minute buffer), get a new one
-        if (tokenCache.get() == null || expiry == null || now.plusSeconds(300).isAfter(expiry)) {
-            synchronized (this) {
-                // Double-check after acquiring lock
-                if (tokenCache.get() == null || expiry == null || now.plusSeconds(300).isAfter(expiry)) {
-                    refreshToken();
-                }
+        CachedToken token = current;
+        if (isUsable(token)) {
+            return token.token();
+        }
+        try {
+            return fetch().join().token();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to obtain Azure AD token", e.getCause());
+        }
+    }
+
+    // One background attempt: fetches when the current token is due (or missing) and returns the delay in
+    // ms until the next attempt
+    long refreshInBackground() {
+        CachedToken token = current;
+        if (token == null || !clock.instant().isBefore(token.refreshAt())) {
+            try {
+                token = fetch().join();
+                failedAttempts = 0;
+            } catch (CompletionException e) {
+                failedAttempts++;
+                long delay = backoff(failedAttempts);
+                CachedToken stale = current;
+                log.warn("Azure AD token refresh failed (attempt {}), retrying in {} ms; current token {}",
+                        failedAttempts, delay, stale == null ? "missing" : "expires at " + stale.expiresAt(),
+                        e.getCause());
+                return delay;
             }
         }
+        return Math.max(RETRY_BASE_MS, Duration.between(clock.instant(), token.refreshAt()).toMillis());
+    }
 
-        String token = tokenCache.get();
-        if (token == null) {
-            throw new RuntimeException("Failed to obtain Azure AD token");
+    // Exponential with equal jitter: half the step is fixed, half random, so instances that failed together
+    // do not retry together
+    long backoff(int attempt) {
+        long step = Math.min(maxBackoffMs, RETRY_BASE_MS << Math.min(attempt - 1, 16));
+        return step / 2 + ThreadLocalRandom.current().nextLong(step / 2 + 1);
+    }
+
+    private void refreshAndReschedule() {
+        long delay;
+        try {
+            delay = refreshInBackground();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error refreshing Azure AD token", e);
+            delay = maxBackoffMs;
+        }
+        try {
+            scheduler.schedule(this::refreshAndReschedule, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
         }
-        return token;
     }
 
-    private void refreshToken() {
+    // Single flight: the first caller asks Entra ID, everyone arriving meanwhile gets the same future
+    private CompletableFuture<CachedToken> fetch() {
+        CompletableFuture<CachedToken> mine = new CompletableFuture<>();
+        CompletableFuture<CachedToken> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return running;
+        }
+        long start = System.nanoTime();
         try {
-            ClientSecretCredential credential = new ClientSecretCredentialBuilder()
-                    .tenantId(tenantId)
-                    .clientId(clientId)
-                    .clientSecret(clientSecret)
-                    .build();
-
-            // Create token request context for Azure SQL Database
-            TokenRequestContext requestContext = new TokenRequestContext()
-                    .addScopes("https://database.windows.net/.default");
-
-            // Get token and block until it's available
-            String token = credential.getToken(requestContext)
-                    .block()
-                    .getToken();
-            
-            // Cache the token
-            tokenCache.set(token);
-            
-            // Set expiry time (typically 1 hour from now)
-            tokenExpiry.set(Instant.now().plusSeconds(3600));
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to refresh Azure AD token", e);
+            AccessToken accessToken = credential.getToken(requestContext).block(requestTimeout);
+            if (accessToken == null || accessToken.getToken() == null || accessToken.getExpiresAt() == null) {
+                throw new IllegalStateException("Credential returned no token");
+            }
+            Instant fetchedAt = clock.instant();
+            Instant expiresAt = accessToken.getExpiresAt().toInstant();
+            // Refresh ahead of expiry, but never earlier than halfway through a short-lived token
+            Duration lifetime = Duration.between(fetchedAt, expiresAt);
+            Duration ahead = lifetime.dividedBy(2).compareTo(refreshAhead) < 0 ? lifetime.dividedBy(2) : refreshAhead;
+            CachedToken token = new CachedToken(accessToken.getToken(), expiresAt, expiresAt.minus(ahead));
+            current = token;
+            refreshSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("Obtained Azure AD token expiring at {}, next refresh at {}", expiresAt, token.refreshAt());
+            mine.complete(token);
+        } catch (RuntimeException e) {
+            refreshFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.set(null);
         }
+        return mine;
+    }
+
+    private boolean isUsable(CachedToken token) {
+        return token != null && clock.instant().plus(MIN_REMAINING).isBefore(token.expiresAt());
+    }
+
+    private double secondsRemaining() {
+        CachedToken token = current;
+        return token == null ? 0 : Math.max(0, Duration.between(clock.instant(), token.expiresAt()).toSeconds());
     }
-} 
\ No newline at end of file
+}
@@ -8,11 +8,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Component
 public class RequestTimingInterceptor implements HandlerInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(RequestTimingInterceptor.class);
     private static final String START_TIME = "requestStartTime";
 
+    // Reported once, to show what startup warm-up left for the first caller
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         request.setAttribute(START_TIME, System.currentTimeMillis());
@@ -29,5 +34,11 @@ public class RequestTimingInterceptor implements HandlerInterceptor {
             request.getMethod(), 
             request.getRequestURI(), 
             executionTime);
+        if (firstRequest.compareAndSet(true, false)) {
+            logger.info("First API request after startup: {} {} completed in {} ms",
+                request.getMethod(),
+                request.getRequestURI(),
+                executionTime);
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.clevelanddx.packageintake.config;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.credential.TokenRequestContext;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Offline credential for tests and local runs: issues "stub-token-<n>" valid for a fixed lifetime without
+// contacting Entra ID. The count of issued tokens shows when a refresh happened.
+public class StubTokenCredential implements TokenCredential {
+
+    private final Duration lifetime;
+    private final AtomicInteger issued = new AtomicInteger();
+
+    public StubTokenCredential(Duration lifetime) {
+        this.lifetime = lifetime;
+    }
+
+    @Override
+    public Mono<AccessToken> getToken(TokenRequestContext request) {
+        return Mono.fromSupplier(() -> new AccessToken("stub-token-" + issued.incrementAndGet(),
+                OffsetDateTime.now().plus(lifetime)));
+    }
+
+    public int getIssued() {
+        return issued.get();
+    }
+}
@@ -1,7 +1,9 @@
 package com.clevelanddx.packageintake.controller;
 
+import com.clevelanddx.packageintake.dto.CacheRegionStats;
 import com.clevelanddx.packageintake.model.Client;
 import com.clevelanddx.packageintake.service.ClientService;
+import com.clevelanddx.packageintake.service.EntityCacheStatistics;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,10 +25,12 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService service;
+    private final EntityCacheStatistics cacheStatistics;
 
     @Autowired
-    public ClientController(ClientService service) {
+    public ClientController(ClientService service, EntityCacheStatistics cacheStatistics) {
         this.service = service;
+        this.cacheStatistics = cacheStatistics;
     }
 
     @PostMapping
@@ -112,25 +116,46 @@ public class ClientController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search clients by partial name match -- this changed")
-    public ResponseEntity<List<Client>> searchClients(@RequestParam String searchTerm) {
-        List<Client> clients = service.searchClients(searchTerm);
+    @Operation(summary = "Search clients by partial name match -- this changed",
+               description = "Case-insensitive substring match served from memory; exact and prefix matches come first")
+    public ResponseEntity<List<Client>> searchClients(
+            @RequestParam String searchTerm,
+            @Parameter(description = "Maximum number of clients to return; all matches when omitted") @RequestParam(required = false) Integer limit) {
+        List<Client> clients = service.searchClients(searchTerm, limit(limit));
         return ResponseEntity.ok(clients);
     }
 
     @GetMapping("/search/partial")
-    @Operation(summary = "Search clients by partial name in Inbound Shipments Clients table")
+    @Operation(summary = "Search clients by partial name in Inbound Shipments Clients table",
+               description = "Case-insensitive substring match served from memory; exact and prefix matches come first")
     @ApiResponse(responseCode = "200", description = "List of clients found")
-    public ResponseEntity<List<Client>> searchClientByPartial(@RequestParam(required = false) String partialName) {
-        List<Client> clients = service.searchClientByPartial(partialName);
+    public ResponseEntity<List<Client>> searchClientByPartial(
+            @RequestParam(required = false) String partialName,
+            @Parameter(description = "Maximum number of clients to return; all matches when omitted") @RequestParam(required = false) Integer limit) {
+        List<Client> clients = service.searchClientByPartial(partialName, limit(limit));
         return ResponseEntity.ok(clients);
     }
 
     @GetMapping("/searchByPartialName")
     @Operation(summary = "Search clients by partial name (legacy endpoint)")
     @ApiResponse(responseCode = "200", description = "List of clients found")
-    public ResponseEntity<List<Client>> searchByPartialNameLegacy(@RequestParam String partialName) {
-        List<Client> clients = service.searchClientByPartial(partialName);
+    public ResponseEntity<List<Client>> searchByPartialNameLegacy(
+            @RequestParam String partialName,
+            @Parameter(description = "Maximum number of clients to return; all matches when omitted") @RequestParam(required = false) Integer limit) {
+        List<Client> clients = service.searchClientByPartial(partialName, limit(limit));
         return ResponseEntity.ok(clients);
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Get client second-level cache statistics",
+               description = "Hit/miss/put counters and size of the Hibernate entity and query cache regions for clients")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatistics.regions(Client.CACHE_REGION, Client.QUERY_CACHE_REGION));
+    }
+
+    // Missing or non-positive means no limit
+    private static int limit(Integer limit) {
+        return limit == null ? 0 : limit;
+    }
+}
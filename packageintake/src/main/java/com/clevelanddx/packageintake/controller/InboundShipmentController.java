@@ -1,8 +1,13 @@
 package com.clevelanddx.packageintake.controller;
 
+import com.clevelanddx.packageintake.dto.BatchScanRequest;
+import com.clevelanddx.packageintake.dto.BatchScanResponse;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequest;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequestV2;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.SearchCacheStats;
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
+import com.clevelanddx.packageintake.dto.ShipmentView;
 import com.clevelanddx.packageintake.model.InboundShipment;
 import com.clevelanddx.packageintake.service.InboundShipmentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +29,10 @@ import java.util.List;
 @Tag(name = "Inbound Shipments", description = "APIs for managing inbound shipments")
 public class InboundShipmentController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_KEYSET_LIMIT = 100;
+    private static final String VIEW_DESCRIPTION = "list (default): row ID, tracking number, client, status, lab and scan time only; full: complete shipments";
+
     private final InboundShipmentService service;
 
     @Autowired
@@ -81,17 +90,43 @@ public class InboundShipmentController {
     }
 
     @GetMapping("/client/{client}")
-    @Operation(summary = "Get all inbound shipments for a client")
-    public ResponseEntity<List<InboundShipment>> getShipmentsByClient(@PathVariable String client) {
-        List<InboundShipment> shipments = service.getShipmentsByClient(client);
-        return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
+    @Operation(summary = "Get all inbound shipments for a client",
+               description = "Without after/limit returns every shipment for the client. With either, returns one keyset page, newest first; the " + NEXT_CURSOR_HEADER + " header carries the after value for the next page.")
+    public ResponseEntity<List<InboundShipment>> getShipmentsByClient(
+            @PathVariable String client,
+            @Parameter(description = "Return only shipments with a Row_ID below this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size when paging (default: 100, max: 20000)")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            List<InboundShipment> shipments = service.getShipmentsByClient(client);
+            return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
+        }
+        int pageSize = limit == null ? DEFAULT_KEYSET_LIMIT : limit;
+        if (pageSize <= 0 || pageSize > 20000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return keysetPage(service.getShipmentsByClient(client, after, pageSize), pageSize);
     }
 
     @GetMapping("/status/{status}")
-    @Operation(summary = "Get all inbound shipments by status")
-    public ResponseEntity<List<InboundShipment>> getShipmentsByStatus(@PathVariable String status) {
-        List<InboundShipment> shipments = service.getShipmentsByStatus(status);
-        return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
+    @Operation(summary = "Get all inbound shipments by status",
+               description = "Without after/limit returns every shipment with the status. With either, returns one keyset page, newest first; the " + NEXT_CURSOR_HEADER + " header carries the after value for the next page.")
+    public ResponseEntity<List<InboundShipment>> getShipmentsByStatus(
+            @PathVariable String status,
+            @Parameter(description = "Return only shipments with a Row_ID below this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size when paging (default: 100, max: 20000)")
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            List<InboundShipment> shipments = service.getShipmentsByStatus(status);
+            return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
+        }
+        int pageSize = limit == null ? DEFAULT_KEYSET_LIMIT : limit;
+        if (pageSize <= 0 || pageSize > 20000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return keysetPage(service.getShipmentsByStatus(status, after, pageSize), pageSize);
     }
 
     @GetMapping("/order/{orderNumber}")
@@ -110,20 +145,25 @@ public class InboundShipmentController {
             @RequestParam(required = false) String scanUser,
             @RequestParam(required = false) String scannedNumber) {
         try {
-            InboundShipment shipment = service.getShipmentById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Shipment not found with id: " + id));
-            
-            shipment.setScanTime(scanTime != null ? scanTime : LocalDateTime.now());
-            shipment.setScanUser(scanUser);
-            if (scannedNumber != null) {
-                shipment.setScannedNumber(scannedNumber);
-            }
-            return ResponseEntity.ok(service.updateShipment(id, shipment));
+            return ResponseEntity.ok(service.stampScan(id, scanTime, scanUser, scannedNumber));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PostMapping("/scan/batch")
+    @Operation(summary = "Scan many barcodes in one request",
+               description = "Resolves every scanned number to a shipment in one query and stamps all unambiguous matches in one statement. Each item reports MATCHED, AMBIGUOUS or NOT_FOUND; ambiguous items are not stamped.")
+    @ApiResponse(responseCode = "200", description = "Batch processed; see the per-item results")
+    @ApiResponse(responseCode = "400", description = "No scanned numbers, or more than 1000 in one batch")
+    public ResponseEntity<BatchScanResponse> scanBatch(@RequestBody BatchScanRequest request) {
+        if (request.getScannedNumbers() == null || request.getScannedNumbers().isEmpty()
+                || request.getScannedNumbers().size() > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(service.scanBatch(request));
+    }
+
     @GetMapping("/scanned")
     @Operation(summary = "Get all scanned inbound shipments")
     public ResponseEntity<List<InboundShipment>> getScannedShipments() {
@@ -196,8 +236,13 @@ public class InboundShipmentController {
     @Operation(summary = "Get all inbound shipments scanned today")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved today's shipments")
     @ApiResponse(responseCode = "204", description = "No shipments found for today")
-    public ResponseEntity<List<InboundShipment>> getTodayShipments() {
-        List<InboundShipment> shipments = service.getTodayShipments();
+    public ResponseEntity<? extends List<?>> getTodayShipments(
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(defaultValue = "list") String view) {
+        ShipmentView shipmentView = view(view);
+        if (shipmentView == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<?> shipments = shipmentView == ShipmentView.FULL ? service.getTodayShipments() : service.getTodayShipmentRows();
         return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
     }
     
@@ -205,11 +250,18 @@ public class InboundShipmentController {
     @Operation(summary = "Get all inbound shipments scanned on a specific date")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved shipments for the specified date")
     @ApiResponse(responseCode = "204", description = "No shipments found for the specified date")
-    public ResponseEntity<List<InboundShipment>> getShipmentsByDate(
-            @Parameter(description = "Date to search for (format: yyyy-MM-dd)") @PathVariable String date) {
+    public ResponseEntity<? extends List<?>> getShipmentsByDate(
+            @Parameter(description = "Date to search for (format: yyyy-MM-dd)") @PathVariable String date,
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(defaultValue = "list") String view) {
         try {
             LocalDate searchDate = LocalDate.parse(date);
-            List<InboundShipment> shipments = service.getShipmentsByDate(searchDate);
+            ShipmentView shipmentView = view(view);
+            if (shipmentView == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            List<?> shipments = shipmentView == ShipmentView.FULL
+                    ? service.getShipmentsByDate(searchDate)
+                    : service.getShipmentRowsByDateRange(searchDate, searchDate);
             return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -221,18 +273,22 @@ public class InboundShipmentController {
     @ApiResponse(responseCode = "200", description = "Successfully retrieved shipments for the date range")
     @ApiResponse(responseCode = "204", description = "No shipments found for the date range")
     @ApiResponse(responseCode = "400", description = "Invalid date format or range")
-    public ResponseEntity<List<InboundShipment>> getShipmentsByDateRange(
+    public ResponseEntity<? extends List<?>> getShipmentsByDateRange(
             @Parameter(description = "Start date (format: yyyy-MM-dd)") @RequestParam String fromDate,
-            @Parameter(description = "End date (format: yyyy-MM-dd)") @RequestParam String toDate) {
+            @Parameter(description = "End date (format: yyyy-MM-dd)") @RequestParam String toDate,
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(defaultValue = "list") String view) {
         try {
             LocalDate from = LocalDate.parse(fromDate);
             LocalDate to = LocalDate.parse(toDate);
+            ShipmentView shipmentView = view(view);
             
-            if (from.isAfter(to)) {
+            if (from.isAfter(to) || shipmentView == null) {
                 return ResponseEntity.badRequest().build();
             }
             
-            List<InboundShipment> shipments = service.getShipmentsByDateRange(from, to);
+            List<?> shipments = shipmentView == ShipmentView.FULL
+                    ? service.getShipmentsByDateRange(from, to)
+                    : service.getShipmentRowsByDateRange(from, to);
             return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -240,21 +296,31 @@ public class InboundShipmentController {
     }
     
     @GetMapping("/recent")
-    @Operation(summary = "Get the most recent inbound shipments")
+    @Operation(summary = "Get the most recent inbound shipments",
+               description = "Newest first. Pass the " + NEXT_CURSOR_HEADER + " response header back as after to read the next page.")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved recent shipments")
     @ApiResponse(responseCode = "204", description = "No shipments found")
     @ApiResponse(responseCode = "400", description = "Invalid limit parameter")
-    public ResponseEntity<List<InboundShipment>> getRecentShipments(
+    public ResponseEntity<? extends List<?>> getRecentShipments(
             @Parameter(description = "Number of recent shipments to retrieve (default: 10, max: 20000)") 
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Return only shipments with a Row_ID below this cursor")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = VIEW_DESCRIPTION) @RequestParam(defaultValue = "list") String view) {
         try {
             // Validate limit parameter
-            if (limit <= 0 || limit > 20000) {
+            ShipmentView shipmentView = view(view);
+            if (limit <= 0 || limit > 20000 || shipmentView == null) {
                 return ResponseEntity.badRequest().build();
             }
             
-            List<InboundShipment> shipments = service.getRecentShipments(limit);
-            return shipments.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(shipments);
+            if (shipmentView == ShipmentView.LIST) {
+                return keysetPage(service.getRecentShipmentRows(limit, after), limit);
+            }
+            List<InboundShipment> shipments = after == null
+                    ? service.getRecentShipments(limit)
+                    : service.getRecentShipments(limit, after);
+            return keysetPage(shipments, limit);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -308,9 +374,17 @@ public class InboundShipmentController {
         }
     }
     
+    @GetMapping("/search/cache-stats")
+    @Operation(summary = "Get search result cache statistics",
+               description = "Hit/miss counters, invalidations and current size of the cache serving repeated /search and /search/v2 requests")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(service.getSearchCacheStats());
+    }
+    
     @GetMapping("/distinct/scan-users")
     @Operation(summary = "Get all distinct scan users", 
-               description = "Returns a cached list of all unique scan users from the inbound shipments table")
+               description = "Returns all unique scan users from the inbound shipments table, kept current in memory as shipments are written and scanned")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved distinct scan users")
     @ApiResponse(responseCode = "204", description = "No scan users found")
     public ResponseEntity<List<String>> getDistinctScanUsers() {
@@ -320,7 +394,7 @@ public class InboundShipmentController {
 
     @GetMapping("/distinct/statuses")
     @Operation(summary = "Get all distinct statuses", 
-               description = "Returns a cached list of all unique statuses from the inbound shipments table")
+               description = "Returns all unique statuses from the inbound shipments table, kept current in memory as shipments are written")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved distinct statuses")
     @ApiResponse(responseCode = "204", description = "No statuses found")
     public ResponseEntity<List<String>> getDistinctStatuses() {
@@ -330,10 +404,37 @@ public class InboundShipmentController {
     
     @PostMapping("/distinct/refresh-cache")
     @Operation(summary = "Refresh distinct lists cache", 
-               description = "Manually refreshes the cache for distinct scan users and statuses. Use this when you know the data has changed.")
+               description = "Re-reads the distinct scan users and statuses from the table. The lists already follow writes made through this service; this also drops values no shipment uses any more.")
     @ApiResponse(responseCode = "200", description = "Cache refreshed successfully")
     public ResponseEntity<String> refreshDistinctListsCache() {
         service.evictDistinctListsCache();
-        return ResponseEntity.ok("Cache refreshed successfully. Next requests will fetch fresh data from the database.");
+        return ResponseEntity.ok("Cache refreshed successfully. Distinct lists were reloaded from the database.");
+    }
+
+    // "list" (the default) or "full"; null when the value names neither
+    private static ShipmentView view(String value) {
+        try {
+            ShipmentView view = ShipmentView.fromValue(value);
+            return view == null ? ShipmentView.LIST : view;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // A full page may have more rows behind it, so hand back the last Row_ID as the next cursor
+    private static <T> ResponseEntity<List<T>> keysetPage(List<T> shipments, int limit) {
+        if (shipments.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        if (shipments.size() < limit) {
+            return ResponseEntity.ok(shipments);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(rowId(shipments.get(shipments.size() - 1))))
+                .body(shipments);
+    }
+
+    private static Long rowId(Object row) {
+        return row instanceof ShipmentListRow listRow ? listRow.getRowId() : ((InboundShipment) row).getRowId();
     }
-} 
\ No newline at end of file
+}
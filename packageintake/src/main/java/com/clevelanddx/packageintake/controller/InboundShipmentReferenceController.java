@@ -1,6 +1,8 @@
 package com.clevelanddx.packageintake.controller;
 
+import com.clevelanddx.packageintake.dto.CacheRegionStats;
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
+import com.clevelanddx.packageintake.service.EntityCacheStatistics;
 import com.clevelanddx.packageintake.service.InboundShipmentReferenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,10 +20,12 @@ import java.util.List;
 public class InboundShipmentReferenceController {
 
     private final InboundShipmentReferenceService service;
+    private final EntityCacheStatistics cacheStatistics;
 
     @Autowired
-    public InboundShipmentReferenceController(InboundShipmentReferenceService service) {
+    public InboundShipmentReferenceController(InboundShipmentReferenceService service, EntityCacheStatistics cacheStatistics) {
         this.service = service;
+        this.cacheStatistics = cacheStatistics;
     }
 
     @GetMapping
@@ -111,4 +115,12 @@ public class InboundShipmentReferenceController {
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/cache-stats")
+    @Operation(summary = "Get reference second-level cache statistics",
+               description = "Hit/miss/put counters and size of the Hibernate entity and query cache regions for references")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatistics.regions(InboundShipmentReference.CACHE_REGION, InboundShipmentReference.QUERY_CACHE_REGION));
+    }
 }
@@ -0,0 +1,43 @@
+package com.clevelanddx.packageintake.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchScanRequest {
+    private List<String> scannedNumbers;
+    private String scanUser;
+    // Defaults to the time the batch is received
+    private LocalDateTime scanTime;
+
+    // Manual getters and setters for Lombok compatibility issues
+    public List<String> getScannedNumbers() {
+        return scannedNumbers;
+    }
+
+    public void setScannedNumbers(List<String> scannedNumbers) {
+        this.scannedNumbers = scannedNumbers;
+    }
+
+    public String getScanUser() {
+        return scanUser;
+    }
+
+    public void setScanUser(String scanUser) {
+        this.scanUser = scanUser;
+    }
+
+    public LocalDateTime getScanTime() {
+        return scanTime;
+    }
+
+    public void setScanTime(LocalDateTime scanTime) {
+        this.scanTime = scanTime;
+    }
+}
@@ -0,0 +1,64 @@
+package com.clevelanddx.packageintake.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchScanResponse {
+    // One entry per scanned number, in request order
+    private List<BatchScanResult> results;
+    private int matched;
+    private int ambiguous;
+    private int notFound;
+
+    public static BatchScanResponse of(List<BatchScanResult> results) {
+        BatchScanResponse response = new BatchScanResponse();
+        response.setResults(results);
+        for (BatchScanResult result : results) {
+            switch (result.getOutcome()) {
+                case MATCHED -> response.matched++;
+                case AMBIGUOUS -> response.ambiguous++;
+                case NOT_FOUND -> response.notFound++;
+            }
+        }
+        return response;
+    }
+
+    // Manual getters and setters for Lombok compatibility issues
+    public List<BatchScanResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchScanResult> results) {
+        this.results = results;
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public void setMatched(int matched) {
+        this.matched = matched;
+    }
+
+    public int getAmbiguous() {
+        return ambiguous;
+    }
+
+    public void setAmbiguous(int ambiguous) {
+        this.ambiguous = ambiguous;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+}
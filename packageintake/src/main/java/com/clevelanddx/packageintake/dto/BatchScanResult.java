@@ -0,0 +1,90 @@
+package com.clevelanddx.packageintake.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchScanResult {
+
+    public enum Outcome {
+        MATCHED,
+        AMBIGUOUS,
+        NOT_FOUND
+    }
+
+    private String scannedNumber;
+    private Outcome outcome;
+    // Set when exactly one shipment matched and was stamped
+    private Long rowId;
+    private String trackingNumber;
+    // True when the shipment already had a scan; the original scan time and user are kept
+    private boolean alreadyScanned;
+    // Every matching shipment when the scan is ambiguous; none of them are stamped
+    private List<Long> candidateRowIds;
+
+    public static BatchScanResult matched(String scannedNumber, Long rowId, String trackingNumber, boolean alreadyScanned) {
+        return new BatchScanResult(scannedNumber, Outcome.MATCHED, rowId, trackingNumber, alreadyScanned, List.of(rowId));
+    }
+
+    public static BatchScanResult ambiguous(String scannedNumber, List<Long> candidateRowIds) {
+        return new BatchScanResult(scannedNumber, Outcome.AMBIGUOUS, null, null, false, candidateRowIds);
+    }
+
+    public static BatchScanResult notFound(String scannedNumber) {
+        return new BatchScanResult(scannedNumber, Outcome.NOT_FOUND, null, null, false, List.of());
+    }
+
+    // Manual getters and setters for Lombok compatibility issues
+    public String getScannedNumber() {
+        return scannedNumber;
+    }
+
+    public void setScannedNumber(String scannedNumber) {
+        this.scannedNumber = scannedNumber;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public Long getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(Long rowId) {
+        this.rowId = rowId;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
+    public boolean isAlreadyScanned() {
+        return alreadyScanned;
+    }
+
+    public void setAlreadyScanned(boolean alreadyScanned) {
+        this.alreadyScanned = alreadyScanned;
+    }
+
+    public List<Long> getCandidateRowIds() {
+        return candidateRowIds;
+    }
+
+    public void setCandidateRowIds(List<Long> candidateRowIds) {
+        this.candidateRowIds = candidateRowIds;
+    }
+}
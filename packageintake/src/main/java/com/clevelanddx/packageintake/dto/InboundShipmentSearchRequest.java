@@ -36,6 +36,12 @@ public class InboundShipmentSearchRequest {
     private Integer page = 0;
     @Builder.Default
     private Integer size = 20;
+    // Keyset cursor: when set, returns the rows below this Row_ID instead of the page at page * size
+    private Long after;
+    // How the total is counted; exact when not given. Ignored for keyset pages, which never count
+    private InboundShipmentSearchResponse.CountMode countMode;
+    // list (ShipmentListRow) or full (InboundShipment)
+    private ShipmentView view;
 
     // Manual getters and setters for Lombok compatibility issues
     public String getTrackingNumber() {
@@ -166,6 +172,30 @@ public class InboundShipmentSearchRequest {
         this.size = size;
     }
 
+    public Long getAfter() {
+        return after;
+    }
+
+    public void setAfter(Long after) {
+        this.after = after;
+    }
+
+    public InboundShipmentSearchResponse.CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(InboundShipmentSearchResponse.CountMode countMode) {
+        this.countMode = countMode;
+    }
+
+    public ShipmentView getView() {
+        return view;
+    }
+
+    public void setView(ShipmentView view) {
+        this.view = view;
+    }
+
     // Builder pattern for compatibility
     public static InboundShipmentSearchRequestBuilder builder() {
         return new InboundShipmentSearchRequestBuilder();
@@ -188,6 +218,9 @@ public class InboundShipmentSearchRequest {
         private LocalDate lastUpdateDatetimeTo;
         private Integer page = 0;
         private Integer size = 20;
+        private Long after;
+        private InboundShipmentSearchResponse.CountMode countMode;
+        private ShipmentView view;
 
         public InboundShipmentSearchRequestBuilder trackingNumber(String trackingNumber) {
             this.trackingNumber = trackingNumber;
@@ -269,6 +302,21 @@ public class InboundShipmentSearchRequest {
             return this;
         }
 
+        public InboundShipmentSearchRequestBuilder after(Long after) {
+            this.after = after;
+            return this;
+        }
+
+        public InboundShipmentSearchRequestBuilder countMode(InboundShipmentSearchResponse.CountMode countMode) {
+            this.countMode = countMode;
+            return this;
+        }
+
+        public InboundShipmentSearchRequestBuilder view(ShipmentView view) {
+            this.view = view;
+            return this;
+        }
+
         public InboundShipmentSearchRequest build() {
             InboundShipmentSearchRequest request = new InboundShipmentSearchRequest();
             request.trackingNumber = this.trackingNumber;
@@ -287,6 +335,9 @@ public class InboundShipmentSearchRequest {
             request.lastUpdateDatetimeTo = this.lastUpdateDatetimeTo;
             request.page = this.page;
             request.size = this.size;
+            request.after = this.after;
+            request.countMode = this.countMode;
+            request.view = this.view;
             return request;
         }
     }
@@ -26,6 +26,12 @@ public class InboundShipmentSearchRequestV2 {
     // Pagination
     private Integer page = 0;
     private Integer size = 20;
+    // Keyset cursor: when set, returns the rows below this Row_ID instead of the page at page * size
+    private Long after;
+    // How the total is counted; exact when not given. Ignored for keyset pages, which never count
+    private InboundShipmentSearchResponse.CountMode countMode;
+    // list (ShipmentListRow) or full (InboundShipment)
+    private ShipmentView view;
     
     // Constructors
     public InboundShipmentSearchRequestV2() {}
@@ -106,4 +112,13 @@ public class InboundShipmentSearchRequestV2 {
     
     public Integer getSize() { return size; }
     public void setSize(Integer size) { this.size = size; }
+    
+    public Long getAfter() { return after; }
+    public void setAfter(Long after) { this.after = after; }
+    
+    public InboundShipmentSearchResponse.CountMode getCountMode() { return countMode; }
+    public void setCountMode(InboundShipmentSearchResponse.CountMode countMode) { this.countMode = countMode; }
+    
+    public ShipmentView getView() { return view; }
+    public void setView(ShipmentView view) { this.view = view; }
 }
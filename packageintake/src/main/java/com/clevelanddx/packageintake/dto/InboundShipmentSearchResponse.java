@@ -1,25 +1,63 @@
 package com.clevelanddx.packageintake.dto;
 
 import com.clevelanddx.packageintake.model.InboundShipment;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
 import java.util.List;
+import java.util.Locale;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class InboundShipmentSearchResponse {
+    // Reported for totals that were not computed (keyset pages skip the count)
+    public static final int UNCOUNTED = -1;
+
+    // How totalElements is produced; requests choose with "countMode" (lower case in JSON)
+    public enum CountMode {
+        // Exact total from COUNT(*) OVER () on the page query itself
+        EXACT,
+        // Counts at most a few pages past the current one; totalCapped is set when there are more
+        WINDOWED,
+        // Counts up to a fixed threshold ("10000+ results"); totalCapped is set when it was reached
+        ESTIMATED,
+        // No count at all; hasNext comes from reading one row past the page, totals are UNCOUNTED
+        NONE;
+
+        @JsonCreator
+        public static CountMode fromValue(String value) {
+            return value == null || value.isBlank() ? null : valueOf(value.strip().toUpperCase(Locale.ROOT));
+        }
+
+        @JsonValue
+        public String value() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Exactly one of these is set, depending on the requested view
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<InboundShipment> shipments;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ShipmentListRow> rows;
     private long totalElements;
     private int totalPages;
     private int currentPage;
     private int pageSize;
     private boolean hasNext;
     private boolean hasPrevious;
+    // Row_ID to pass as "after" for the next page; null on the last page
+    private Long nextCursor;
+    private CountMode countMode;
+    // True when totalElements is a lower bound because the count stopped at its cap
+    private boolean totalCapped;
 
     // Manual getters and setters for Lombok compatibility issues
     public List<InboundShipment> getShipments() {
@@ -30,6 +68,14 @@ public class InboundShipmentSearchResponse {
         this.shipments = shipments;
     }
 
+    public List<ShipmentListRow> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<ShipmentListRow> rows) {
+        this.rows = rows;
+    }
+
     public long getTotalElements() {
         return totalElements;
     }
@@ -78,6 +124,30 @@ public class InboundShipmentSearchResponse {
         this.hasPrevious = hasPrevious;
     }
 
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
+
+    public boolean isTotalCapped() {
+        return totalCapped;
+    }
+
+    public void setTotalCapped(boolean totalCapped) {
+        this.totalCapped = totalCapped;
+    }
+
     // Builder pattern for compatibility
     public static InboundShipmentSearchResponseBuilder builder() {
         return new InboundShipmentSearchResponseBuilder();
@@ -85,18 +155,27 @@ public class InboundShipmentSearchResponse {
 
     public static class InboundShipmentSearchResponseBuilder {
         private List<InboundShipment> shipments;
+        private List<ShipmentListRow> rows;
         private long totalElements;
         private int totalPages;
         private int currentPage;
         private int pageSize;
         private boolean hasNext;
         private boolean hasPrevious;
+        private Long nextCursor;
+        private CountMode countMode;
+        private boolean totalCapped;
 
         public InboundShipmentSearchResponseBuilder shipments(List<InboundShipment> shipments) {
             this.shipments = shipments;
             return this;
         }
 
+        public InboundShipmentSearchResponseBuilder rows(List<ShipmentListRow> rows) {
+            this.rows = rows;
+            return this;
+        }
+
         public InboundShipmentSearchResponseBuilder totalElements(long totalElements) {
             this.totalElements = totalElements;
             return this;
@@ -127,15 +206,34 @@ public class InboundShipmentSearchResponse {
             return this;
         }
 
+        public InboundShipmentSearchResponseBuilder nextCursor(Long nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        public InboundShipmentSearchResponseBuilder countMode(CountMode countMode) {
+            this.countMode = countMode;
+            return this;
+        }
+
+        public InboundShipmentSearchResponseBuilder totalCapped(boolean totalCapped) {
+            this.totalCapped = totalCapped;
+            return this;
+        }
+
         public InboundShipmentSearchResponse build() {
             InboundShipmentSearchResponse response = new InboundShipmentSearchResponse();
             response.shipments = this.shipments;
+            response.rows = this.rows;
             response.totalElements = this.totalElements;
             response.totalPages = this.totalPages;
             response.currentPage = this.currentPage;
             response.pageSize = this.pageSize;
             response.hasNext = this.hasNext;
             response.hasPrevious = this.hasPrevious;
+            response.nextCursor = this.nextCursor;
+            response.countMode = this.countMode;
+            response.totalCapped = this.totalCapped;
             return response;
         }
     }
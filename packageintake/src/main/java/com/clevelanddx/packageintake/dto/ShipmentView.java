@@ -0,0 +1,24 @@
+package com.clevelanddx.packageintake.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+// Shape of the rows returned by list and search endpoints ("view" parameter, lower case)
+public enum ShipmentView {
+    // ShipmentListRow: the handful of columns list screens and reports show, selected directly in SQL
+    LIST,
+    // Whole InboundShipment entities, including the client and shipment type associations
+    FULL;
+
+    @JsonCreator
+    public static ShipmentView fromValue(String value) {
+        return value == null || value.isBlank() ? null : valueOf(value.strip().toUpperCase(Locale.ROOT));
+    }
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
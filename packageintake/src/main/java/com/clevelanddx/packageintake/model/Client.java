@@ -6,6 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +19,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Schema(description = "Client information")
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Client.CACHE_REGION)
 public class Client {
+    // Second-level cache regions; sized in application.conf
+    public static final String CACHE_REGION = "client";
+    public static final String QUERY_CACHE_REGION = "clientQueries";
+
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,7 +34,7 @@ public class Client {
     @Schema(description = "Unique identifier", example = "1")
     private Long id;
 
-    @Column(name = "Client")
+    @Column(name = "Client", length = 255)
     @Schema(description = "Client name", example = "Acme Corporation")
     private String client;
 
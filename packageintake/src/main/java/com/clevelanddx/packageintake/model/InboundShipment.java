@@ -1,5 +1,6 @@
 package com.clevelanddx.packageintake.model;
 
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,36 +12,69 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "Inbound_Shipments")
+@SqlResultSetMapping(
+    name = InboundShipment.WITH_TOTAL_COUNT,
+    entities = @EntityResult(entityClass = InboundShipment.class),
+    columns = @ColumnResult(name = "Total_Count", type = Long.class))
+@SqlResultSetMapping(
+    name = InboundShipment.LIST_ROW,
+    classes = @ConstructorResult(targetClass = ShipmentListRow.class, columns = {
+        @ColumnResult(name = "rowId", type = Long.class),
+        @ColumnResult(name = "trackingNumber", type = String.class),
+        @ColumnResult(name = "client", type = String.class),
+        @ColumnResult(name = "status", type = String.class),
+        @ColumnResult(name = "lab", type = String.class),
+        @ColumnResult(name = "scanTime", type = LocalDateTime.class)}))
+@SqlResultSetMapping(
+    name = InboundShipment.LIST_ROW_WITH_TOTAL_COUNT,
+    classes = @ConstructorResult(targetClass = ShipmentListRow.class, columns = {
+        @ColumnResult(name = "rowId", type = Long.class),
+        @ColumnResult(name = "trackingNumber", type = String.class),
+        @ColumnResult(name = "client", type = String.class),
+        @ColumnResult(name = "status", type = String.class),
+        @ColumnResult(name = "lab", type = String.class),
+        @ColumnResult(name = "scanTime", type = LocalDateTime.class)}),
+    columns = @ColumnResult(name = "Total_Count", type = Long.class))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class InboundShipment {
+    // Search rows followed by the COUNT(*) OVER () total of the whole result
+    public static final String WITH_TOTAL_COUNT = "InboundShipmentWithTotalCount";
+    // ShipmentListRow from the aliased list columns, optionally followed by the same total
+    public static final String LIST_ROW = "ShipmentListRow";
+    public static final String LIST_ROW_WITH_TOTAL_COUNT = "ShipmentListRowWithTotalCount";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "Row_ID")
     private Long rowId;
 
+    @Column(length = 255)
     private String client;
 
-    @Column(name = "Tracking_Number")
+    @Column(name = "Tracking_Number", length = 100)
     private String trackingNumber;
 
     @Column(name = "Scanned_Number")
     private String scannedNumber;
 
+    @Column(length = 100)
     private String status;
 
     @Column(name = "Email_ID")
     private String emailId;
 
-    @Column(name = "Order_Number")
+    @Column(name = "Order_Number", length = 100)
     private String orderNumber;
 
     @Column(name = "Ship_Date")
     private LocalDate shipDate;
 
+    @Column(length = 100)
     private String lab;
+
     private String weight;
 
     @Column(name = "Number_Of_Samples")
@@ -61,14 +95,18 @@ public class InboundShipment {
     @Column(name = "Scan_Time")
     private LocalDateTime scanTime;
 
-    @Column(name = "Scan_User")
+    @Column(name = "Scan_User", length = 255)
     private String scanUser;
 
+    // Native queries cannot join these, so each is loaded after the rows; the @BatchSize on Client and
+    // InboundShipmentReference turns that into one IN-list per result set instead of one SELECT per key
     @ManyToOne
     @JoinColumn(name = "Client_ID")
     private Client clientEntity;
 
-    @ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST})
+    // No cascade: references are resolved through InboundShipmentReferenceService, whose registry hands
+    // out detached instances that must be linked by id, never persisted or merged back
+    @ManyToOne
     @JoinColumn(name = "Shipment_Type")
     private InboundShipmentReference shipmentType;
 
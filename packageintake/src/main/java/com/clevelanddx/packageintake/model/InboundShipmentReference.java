@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "Inbound_Shipments_Reference")
@@ -12,7 +15,14 @@ import lombok.Builder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@BatchSize(size = 100)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = InboundShipmentReference.CACHE_REGION)
 public class InboundShipmentReference {
+    // Second-level cache regions; sized in application.conf
+    public static final String CACHE_REGION = "shipmentReference";
+    public static final String QUERY_CACHE_REGION = "shipmentReferenceQueries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "Row_ID")
@@ -1,9 +1,10 @@
 package com.clevelanddx.packageintake.repository;
 
 import com.clevelanddx.packageintake.model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,13 +12,13 @@ import java.util.Optional;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
+    // Results come from the query cache until a write touches Inbound_Shipments_Clients
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Client.QUERY_CACHE_REGION)})
     Optional<Client> findByClient(String client);
     List<Client> findByLastUpdateUser(String lastUpdateUser);
+    // Clients added since the snapshot's highest Row_ID
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id);
     boolean existsByClient(String client);
-    
-    @Query("SELECT c FROM Client c WHERE LOWER(c.client) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY c.client")
-    List<Client> searchByClient(@Param("searchTerm") String searchTerm);
-
-    @Query(value = "SELECT * FROM Inbound_Shipments_Clients WHERE LOWER(Client) LIKE LOWER(CONCAT('%', :searchTerm, '%')) ORDER BY Client", nativeQuery = true)
-    List<Client> searchClientByPartial(@Param("searchTerm") String searchTerm);
 } 
\ No newline at end of file
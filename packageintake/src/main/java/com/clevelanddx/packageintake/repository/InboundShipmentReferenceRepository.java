@@ -1,7 +1,10 @@
 package com.clevelanddx.packageintake.repository;
 
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,6 +12,14 @@ import java.util.Optional;
 
 @Repository
 public interface InboundShipmentReferenceRepository extends JpaRepository<InboundShipmentReference, Long> {
+    // Results come from the query cache until a write touches Inbound_Shipments_Reference
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = InboundShipmentReference.QUERY_CACHE_REGION)})
     List<InboundShipmentReference> findByType(String type);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = InboundShipmentReference.QUERY_CACHE_REGION)})
     Optional<InboundShipmentReference> findByTypeAndValue(String type, String value);
 }
@@ -1,14 +1,18 @@
 package com.clevelanddx.packageintake.repository;
 
 import com.clevelanddx.packageintake.model.InboundShipment;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +25,11 @@ public interface InboundShipmentRepository extends JpaRepository<InboundShipment
     Optional<InboundShipment> findByScannedNumber(String scannedNumber);
     
     // New date-based query methods
+    // Half-open ranges on Scan_Time itself, so IX_Inbound_Shipments_Scan_Time can be seeked
     @Query(value = """
         SELECT * FROM Inbound_Shipments 
-        WHERE CAST(Scan_Time AS DATE) = CAST(DATEADD(hour, -5, GETUTCDATE()) AS DATE)
+        WHERE Scan_Time >= CAST(CAST(DATEADD(hour, -5, GETUTCDATE()) AS DATE) AS DATETIME)
+          AND Scan_Time < DATEADD(day, 1, CAST(CAST(DATEADD(hour, -5, GETUTCDATE()) AS DATE) AS DATETIME))
         ORDER BY Row_ID DESC
         """, nativeQuery = true)
     List<InboundShipment> findTodayShipments();
@@ -34,16 +40,38 @@ public interface InboundShipmentRepository extends JpaRepository<InboundShipment
         """, nativeQuery = true)
     List<InboundShipment> findRecentShipments(@Param("limit") int limit);
     
+    // Keyset listings: seek below the Row_ID cursor on the clustered key instead of offsetting
+    @Query(value = """
+        SELECT TOP(:limit) * FROM Inbound_Shipments 
+        WHERE Row_ID < :cursor
+        ORDER BY Row_ID DESC
+        """, nativeQuery = true)
+    List<InboundShipment> findRecentShipmentsBefore(@Param("cursor") long cursor, @Param("limit") int limit);
+    
+    @Query(value = """
+        SELECT TOP(:limit) * FROM Inbound_Shipments 
+        WHERE Client = :client AND Row_ID < :cursor
+        ORDER BY Row_ID DESC
+        """, nativeQuery = true)
+    List<InboundShipment> findByClientBefore(@Param("client") String client, @Param("cursor") long cursor, @Param("limit") int limit);
+    
+    @Query(value = """
+        SELECT TOP(:limit) * FROM Inbound_Shipments 
+        WHERE Status = :status AND Row_ID < :cursor
+        ORDER BY Row_ID DESC
+        """, nativeQuery = true)
+    List<InboundShipment> findByStatusBefore(@Param("status") String status, @Param("cursor") long cursor, @Param("limit") int limit);
+    
     @Query(value = """
         SELECT * FROM Inbound_Shipments 
-        WHERE CAST(Scan_Time AS DATE) = :date
+        WHERE Scan_Time >= :date AND Scan_Time < DATEADD(day, 1, :date)
         ORDER BY Row_ID DESC
         """, nativeQuery = true)
     List<InboundShipment> findByScanDate(@Param("date") LocalDate date);
     
     @Query(value = """
         SELECT * FROM Inbound_Shipments 
-        WHERE CAST(Scan_Time AS DATE) BETWEEN :fromDate AND :toDate
+        WHERE Scan_Time >= :fromDate AND Scan_Time < DATEADD(day, 1, :toDate)
         ORDER BY Row_ID DESC
         """, nativeQuery = true)
     List<InboundShipment> findByScanDateRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
@@ -112,49 +140,120 @@ public interface InboundShipmentRepository extends JpaRepository<InboundShipment
         """, nativeQuery = true)
     List<InboundShipment> findAllByTrackingNumberInScannedNumber(@Param("scannedNumber") String scannedNumber);
     
+    // Equality lookups for tracking numbers decoded from a carrier barcode; an exact Scanned_Number match still wins
+    @Query(value = """
+        SELECT TOP 1 *
+        FROM Inbound_Shipments
+        WHERE Scanned_Number = :scannedNumber
+           OR (
+                Tracking_Number IN (:trackingNumbers)
+                AND NOT EXISTS (SELECT 1 FROM Inbound_Shipments WHERE Scanned_Number = :scannedNumber)
+           )
+        ORDER BY Row_ID DESC
+        """, nativeQuery = true)
+    Optional<InboundShipment> findFirstByScannedNumberOrTrackingNumberIn(@Param("scannedNumber") String scannedNumber,
+                                                                        @Param("trackingNumbers") Collection<String> trackingNumbers);
+
+    @Query(value = """
+        SELECT *
+        FROM Inbound_Shipments
+        WHERE Scanned_Number = :scannedNumber
+           OR (
+                Tracking_Number IN (:trackingNumbers)
+                AND NOT EXISTS (SELECT 1 FROM Inbound_Shipments WHERE Scanned_Number = :scannedNumber)
+           )
+        ORDER BY Row_ID DESC
+        """, nativeQuery = true)
+    List<InboundShipment> findAllByScannedNumberOrTrackingNumberIn(@Param("scannedNumber") String scannedNumber,
+                                                                   @Param("trackingNumbers") Collection<String> trackingNumbers);
+
+    // Batch scan resolution. :scans is a JSON array of {"s": scanned number, "t": [decoded tracking numbers]};
+    // entries with "t" are matched by tracking number equality, the rest by the tracking-in-scanned substring rule.
+    // As with the single lookups, an exact Scanned_Number match takes precedence for its entry.
+    @Query(value = """
+        WITH Scans AS (
+            SELECT CAST(scan.[key] AS INT) AS Item,
+                   JSON_VALUE(scan.[value], '$.s') AS Scanned,
+                   JSON_QUERY(scan.[value], '$.t') AS Candidates
+            FROM OPENJSON(:scans) scan
+        ),
+        ExactMatches AS (
+            SELECT sc.Item, s.Row_ID
+            FROM Scans sc
+            INNER JOIN Inbound_Shipments s ON s.Scanned_Number = sc.Scanned
+            WHERE s.Scanned_Number <> ''
+        ),
+        TrackingMatches AS (
+            SELECT sc.Item, s.Row_ID
+            FROM Scans sc
+            CROSS APPLY OPENJSON(sc.Candidates) c
+            INNER JOIN Inbound_Shipments s ON s.Tracking_Number = c.[value]
+            UNION
+            SELECT sc.Item, s.Row_ID
+            FROM Scans sc
+            INNER JOIN Inbound_Shipments s
+                ON sc.Candidates IS NULL
+               AND LEN(sc.Scanned) > 9
+               AND s.Tracking_Number IS NOT NULL
+               AND s.Tracking_Number <> ''
+               AND sc.Scanned LIKE CONCAT('%', s.Tracking_Number, '%')
+        ),
+        Matches AS (
+            SELECT Item, Row_ID FROM ExactMatches
+            UNION
+            SELECT t.Item, t.Row_ID
+            FROM TrackingMatches t
+            WHERE NOT EXISTS (SELECT 1 FROM ExactMatches e WHERE e.Item = t.Item)
+        )
+        SELECT m.Item AS item, s.Row_ID AS rowId, s.Tracking_Number AS trackingNumber, s.Scan_Time AS scanTime
+        FROM Matches m
+        INNER JOIN Inbound_Shipments s ON s.Row_ID = m.Row_ID
+        ORDER BY m.Item, s.Row_ID DESC
+        """, nativeQuery = true)
+    List<InboundShipmentScanMatch> findScanMatches(@Param("scans") String scans);
+
+    // Stamps every row in :stamps (JSON array of {"r": Row_ID, "s": scanned number}) in one statement.
+    // prevent_scan_update_trigger keeps the original Scan_Time and Scan_User of rows that were already scanned.
+    // The declared query space keeps Hibernate from evicting every second-level cache region on each stamp.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "Inbound_Shipments"))
+    @Query(value = """
+        UPDATE s
+        SET Scan_Time = :scanTime,
+            Scan_User = :scanUser,
+            Scanned_Number = stamp.Scanned,
+            Last_Update_Datetime = :lastUpdateDatetime
+        FROM Inbound_Shipments s
+        INNER JOIN OPENJSON(:stamps) WITH (RowId BIGINT '$.r', Scanned NVARCHAR(4000) '$.s') stamp
+            ON s.Row_ID = stamp.RowId
+        """, nativeQuery = true)
+    int stampScans(@Param("stamps") String stamps,
+                   @Param("scanTime") LocalDateTime scanTime,
+                   @Param("scanUser") String scanUser,
+                   @Param("lastUpdateDatetime") LocalDateTime lastUpdateDatetime);
+
+    // Scan key loading for the in-memory tracking number index
+    @Query(value = """
+        SELECT TOP(:limit) Row_ID AS rowId, Tracking_Number AS trackingNumber, Scanned_Number AS scannedNumber
+        FROM Inbound_Shipments
+        WHERE Row_ID > :afterRowId
+        ORDER BY Row_ID
+        """, nativeQuery = true)
+    List<InboundShipmentScanKey> findScanKeysAfter(@Param("afterRowId") long afterRowId, @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT Row_ID AS rowId, Tracking_Number AS trackingNumber, Scanned_Number AS scannedNumber
+        FROM Inbound_Shipments
+        WHERE Last_Update_Datetime >= :since
+        """, nativeQuery = true)
+    List<InboundShipmentScanKey> findScanKeysUpdatedSince(@Param("since") LocalDateTime since);
+
     @Query(value = "SELECT TOP 1 * FROM Inbound_Shipments WHERE :scannedNumber LIKE CONCAT('%', Tracking_Number, '%') AND Client_ID = :organizationId  and Tracking_Number is not null and tracking_number <> '' and len(:scannedNumber) > 9 ORDER BY Row_ID DESC", nativeQuery = true)
     Optional<InboundShipment> findByScannedNumberAndOrganization(@Param("scannedNumber") String scannedNumber, @Param("organizationId") Long organizationId);
 
     @Query(value = "SELECT TOP 1 * FROM Inbound_Shipments WHERE Tracking_Number = :trackingNumber AND Client_ID = :organizationId AND Tracking_Number is not null and tracking_number <> '' ORDER BY Row_ID DESC", nativeQuery = true)
     Optional<InboundShipment> findByTrackingNumberAndOrganization(@Param("trackingNumber") String trackingNumber, @Param("organizationId") Long organizationId);
     
-    // Search method with dynamic criteria
-    @Query(value = """
-        SELECT * FROM Inbound_Shipments 
-        WHERE (:trackingNumber IS NULL OR Tracking_Number LIKE CONCAT('%', :trackingNumber, '%'))
-        AND (:scannedNumber IS NULL OR Scanned_Number LIKE CONCAT('%', :scannedNumber, '%'))
-        AND (:status IS NULL OR Status LIKE CONCAT('%', :status, '%'))
-        AND (:orderNumber IS NULL OR Order_Number LIKE CONCAT('%', :orderNumber, '%'))
-        AND (:lab IS NULL OR Lab LIKE CONCAT('%', :lab, '%'))
-        AND (:scanUser IS NULL OR Scan_User LIKE CONCAT('%', :scanUser, '%'))
-        AND (:shipDateFrom IS NULL OR Ship_Date >= :shipDateFrom)
-        AND (:shipDateTo IS NULL OR Ship_Date <= :shipDateTo)
-        AND (:scanDateFrom IS NULL OR CAST(Scan_Time AS DATE) >= :scanDateFrom)
-        AND (:scanDateTo IS NULL OR CAST(Scan_Time AS DATE) <= :scanDateTo)
-        AND (:emailReceiveDatetimeFrom IS NULL OR CAST(Email_Receive_Datetime AS DATE) >= :emailReceiveDatetimeFrom)
-        AND (:emailReceiveDatetimeTo IS NULL OR CAST(Email_Receive_Datetime AS DATE) <= :emailReceiveDatetimeTo)
-        AND (:lastUpdateDatetimeFrom IS NULL OR CAST(Last_Update_Datetime AS DATE) >= :lastUpdateDatetimeFrom)
-        AND (:lastUpdateDatetimeTo IS NULL OR CAST(Last_Update_Datetime AS DATE) <= :lastUpdateDatetimeTo)
-        ORDER BY Row_ID DESC
-        """, nativeQuery = true)
-    Page<InboundShipment> searchShipments(
-        @Param("trackingNumber") String trackingNumber,
-        @Param("scannedNumber") String scannedNumber,
-        @Param("status") String status,
-        @Param("orderNumber") String orderNumber,
-        @Param("lab") String lab,
-        @Param("scanUser") String scanUser,
-        @Param("shipDateFrom") LocalDate shipDateFrom,
-        @Param("shipDateTo") LocalDate shipDateTo,
-        @Param("scanDateFrom") LocalDate scanDateFrom,
-        @Param("scanDateTo") LocalDate scanDateTo,
-        @Param("emailReceiveDatetimeFrom") LocalDate emailReceiveDatetimeFrom,
-        @Param("emailReceiveDatetimeTo") LocalDate emailReceiveDatetimeTo,
-        @Param("lastUpdateDatetimeFrom") LocalDate lastUpdateDatetimeFrom,
-        @Param("lastUpdateDatetimeTo") LocalDate lastUpdateDatetimeTo,
-        Pageable pageable
-    );
-    
     // Distinct query methods for caching
     @Query(value = """
         SELECT DISTINCT Scan_User 
@@ -173,48 +272,23 @@ public interface InboundShipmentRepository extends JpaRepository<InboundShipment
         ORDER BY Status
         """, nativeQuery = true)
     List<String> findDistinctStatuses();
-    
-    // V2 Search method with client name support - simplified to avoid JOIN mapping issues
+
+    @Query(value = "SELECT COALESCE(MAX(Row_ID), 0) FROM Inbound_Shipments", nativeQuery = true)
+    long findMaxRowId();
+
+    // Catch-up after restoring the distinct lists from a snapshot: rows inserted past its Row_ID or updated
+    // since its time, each branch an index seek
     @Query(value = """
-        SELECT s.Row_ID, s.Client, s.Tracking_Number, s.Scanned_Number, s.Status, 
-               s.Email_ID, s.Order_Number, s.Ship_Date, s.Lab, s.Weight, 
-               s.Number_Of_Samples, s.Pickup_Time, s.Pickup_Time_2, 
-               s.Email_Receive_Datetime, s.Last_Update_Datetime, s.Scan_Time, 
-               s.Scan_User, s.Client_ID, s.Shipment_Type
-        FROM Inbound_Shipments s
-        WHERE (:trackingNumber IS NULL OR s.Tracking_Number LIKE CONCAT('%', :trackingNumber, '%'))
-        AND (:scannedNumber IS NULL OR s.Scanned_Number LIKE CONCAT('%', :scannedNumber, '%'))
-        AND (:status IS NULL OR s.Status LIKE CONCAT('%', :status, '%'))
-        AND (:orderNumber IS NULL OR s.Order_Number LIKE CONCAT('%', :orderNumber, '%'))
-        AND (:lab IS NULL OR s.Lab LIKE CONCAT('%', :lab, '%'))
-        AND (:scanUser IS NULL OR s.Scan_User LIKE CONCAT('%', :scanUser, '%'))
-        AND (:clientName IS NULL OR LOWER(s.Client) LIKE LOWER(CONCAT('%', :clientName, '%')))
-        AND (:shipDateFrom IS NULL OR s.Ship_Date >= :shipDateFrom)
-        AND (:shipDateTo IS NULL OR s.Ship_Date <= :shipDateTo)
-        AND (:scanDateFrom IS NULL OR CAST(s.Scan_Time AS DATE) >= :scanDateFrom)
-        AND (:scanDateTo IS NULL OR CAST(s.Scan_Time AS DATE) <= :scanDateTo)
-        AND (:emailReceiveDatetimeFrom IS NULL OR CAST(s.Email_Receive_Datetime AS DATE) >= :emailReceiveDatetimeFrom)
-        AND (:emailReceiveDatetimeTo IS NULL OR CAST(s.Email_Receive_Datetime AS DATE) <= :emailReceiveDatetimeTo)
-        AND (:lastUpdateDatetimeFrom IS NULL OR CAST(s.Last_Update_Datetime AS DATE) >= :lastUpdateDatetimeFrom)
-        AND (:lastUpdateDatetimeTo IS NULL OR CAST(s.Last_Update_Datetime AS DATE) <= :lastUpdateDatetimeTo)
-        ORDER BY s.Row_ID DESC
-        """, nativeQuery = true)
-    Page<InboundShipment> searchShipmentsV2(
-        @Param("trackingNumber") String trackingNumber,
-        @Param("scannedNumber") String scannedNumber,
-        @Param("status") String status,
-        @Param("orderNumber") String orderNumber,
-        @Param("lab") String lab,
-        @Param("scanUser") String scanUser,
-        @Param("clientName") String clientName,
-        @Param("shipDateFrom") LocalDate shipDateFrom,
-        @Param("shipDateTo") LocalDate shipDateTo,
-        @Param("scanDateFrom") LocalDate scanDateFrom,
-        @Param("scanDateTo") LocalDate scanDateTo,
-        @Param("emailReceiveDatetimeFrom") LocalDate emailReceiveDatetimeFrom,
-        @Param("emailReceiveDatetimeTo") LocalDate emailReceiveDatetimeTo,
-        @Param("lastUpdateDatetimeFrom") LocalDate lastUpdateDatetimeFrom,
-        @Param("lastUpdateDatetimeTo") LocalDate lastUpdateDatetimeTo,
-        Pageable pageable
-    );
-} 
\ No newline at end of file
+        SELECT Scan_User FROM Inbound_Shipments WHERE Row_ID > :afterRowId AND Scan_User <> ''
+        UNION
+        SELECT Scan_User FROM Inbound_Shipments WHERE Last_Update_Datetime >= :since AND Scan_User <> ''
+        """, nativeQuery = true)
+    List<String> findDistinctScanUsersChangedSince(@Param("afterRowId") long afterRowId, @Param("since") LocalDateTime since);
+
+    @Query(value = """
+        SELECT Status FROM Inbound_Shipments WHERE Row_ID > :afterRowId AND Status <> ''
+        UNION
+        SELECT Status FROM Inbound_Shipments WHERE Last_Update_Datetime >= :since AND Status <> ''
+        """, nativeQuery = true)
+    List<String> findDistinctStatusesChangedSince(@Param("afterRowId") long afterRowId, @Param("since") LocalDateTime since);
+}
\ No newline at end of file
@@ -1,24 +1,65 @@
 package com.clevelanddx.packageintake.repository;
 
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
 import com.clevelanddx.packageintake.model.InboundShipment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public class InboundShipmentRepositoryImpl {
     
     private static final Logger log = LoggerFactory.getLogger(InboundShipmentRepositoryImpl.class);
     
+    private static final String RECENT_ROWS = "SELECT TOP (:limit) " + ShipmentSearchQueryBuilder.ROW_COLUMNS
+            + "\nFROM Inbound_Shipments s"
+            + "\nWHERE s.Row_ID < :cursor"
+            + "\nORDER BY s.Row_ID DESC";
+
+    private static final String TODAY_ROWS = "SELECT " + ShipmentSearchQueryBuilder.ROW_COLUMNS
+            + "\nFROM Inbound_Shipments s"
+            + "\nWHERE s.Scan_Time >= CAST(CAST(DATEADD(hour, -5, GETUTCDATE()) AS DATE) AS DATETIME)"
+            + "\n  AND s.Scan_Time < DATEADD(day, 1, CAST(CAST(DATEADD(hour, -5, GETUTCDATE()) AS DATE) AS DATETIME))"
+            + "\nORDER BY s.Row_ID DESC";
+
+    private static final String SCAN_DATE_RANGE_ROWS = "SELECT " + ShipmentSearchQueryBuilder.ROW_COLUMNS
+            + "\nFROM Inbound_Shipments s"
+            + "\nWHERE s.Scan_Time >= :fromDate AND s.Scan_Time < DATEADD(day, 1, :toDate)"
+            + "\nORDER BY s.Row_ID DESC";
+
+    // First scan wins in the statement itself so the OUTPUT row is what ends up stored. OUTPUT needs INTO
+    // because of the scan trigger.
+    private static final String STAMP_SCAN = """
+        SET NOCOUNT ON;
+        DECLARE @stamped TABLE (Row_ID BIGINT);
+        UPDATE Inbound_Shipments
+        SET Scan_Time = COALESCE(Scan_Time, :scanTime),
+            Scan_User = COALESCE(Scan_User, :scanUser),
+            Scanned_Number = COALESCE(:scannedNumber, Scanned_Number),
+            Last_Update_Datetime = :lastUpdateDatetime
+        OUTPUT inserted.Row_ID INTO @stamped
+        WHERE Row_ID = :id;
+        SELECT s.*
+        FROM Inbound_Shipments s
+        INNER JOIN @stamped st ON s.Row_ID = st.Row_ID;
+        """;
+
     @PersistenceContext
     private EntityManager entityManager;
     
@@ -59,63 +100,34 @@ public class InboundShipmentRepositoryImpl {
         log.debug("  - lastUpdateDatetimeTo: {}", lastUpdateDatetimeTo);
         log.debug("  - pageable: {}", pageable);
         
-        // Build the query string - simplified to avoid JOIN mapping issues
-               String queryString = """
-                   SELECT s.Row_ID, s.Client, s.Tracking_Number, s.Scanned_Number, s.Status, 
-                          s.Email_ID, s.Order_Number, s.Ship_Date, s.Lab, s.Weight, 
-                          s.Number_Of_Samples, s.Pickup_Time, s.Pickup_Time_2, 
-                          s.Email_Receive_Datetime, s.Last_Update_Datetime, s.Scan_Time, 
-                          s.Scan_User, s.Client_ID, s.Shipment_Type
-                   FROM Inbound_Shipments s
-            WHERE (:trackingNumber IS NULL OR s.Tracking_Number LIKE CONCAT('%', :trackingNumber, '%'))
-            AND (:scannedNumber IS NULL OR s.Scanned_Number LIKE CONCAT('%', :scannedNumber, '%'))
-            AND (:status IS NULL OR s.Status LIKE CONCAT('%', :status, '%'))
-            AND (:orderNumber IS NULL OR s.Order_Number LIKE CONCAT('%', :orderNumber, '%'))
-            AND (:lab IS NULL OR s.Lab LIKE CONCAT('%', :lab, '%'))
-            AND (:scanUser IS NULL OR s.Scan_User LIKE CONCAT('%', :scanUser, '%'))
-            AND (:clientName IS NULL OR LOWER(s.Client) LIKE LOWER(CONCAT('%', :clientName, '%')))
-            AND (:shipDateFrom IS NULL OR s.Ship_Date >= :shipDateFrom)
-            AND (:shipDateTo IS NULL OR s.Ship_Date <= :shipDateTo)
-            AND (:scanDateFrom IS NULL OR CAST(s.Scan_Time AS DATE) >= :scanDateFrom)
-            AND (:scanDateTo IS NULL OR CAST(s.Scan_Time AS DATE) <= :scanDateTo)
-            AND (:emailReceiveDatetimeFrom IS NULL OR CAST(s.Email_Receive_Datetime AS DATE) >= :emailReceiveDatetimeFrom)
-            AND (:emailReceiveDatetimeTo IS NULL OR CAST(s.Email_Receive_Datetime AS DATE) <= :emailReceiveDatetimeTo)
-            AND (:lastUpdateDatetimeFrom IS NULL OR CAST(s.Last_Update_Datetime AS DATE) >= :lastUpdateDatetimeFrom)
-            AND (:lastUpdateDatetimeTo IS NULL OR CAST(s.Last_Update_Datetime AS DATE) <= :lastUpdateDatetimeTo)
-            ORDER BY s.Row_ID DESC
-            """;
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+            .trackingNumber(trackingNumber)
+            .scannedNumber(scannedNumber)
+            .status(status)
+            .orderNumber(orderNumber)
+            .lab(lab)
+            .scanUser(scanUser)
+            .clientName(clientName)
+            .shipDateFrom(shipDateFrom)
+            .shipDateTo(shipDateTo)
+            .scanDateFrom(scanDateFrom)
+            .scanDateTo(scanDateTo)
+            .emailReceiveDatetimeFrom(emailReceiveDatetimeFrom)
+            .emailReceiveDatetimeTo(emailReceiveDatetimeTo)
+            .lastUpdateDatetimeFrom(lastUpdateDatetimeFrom)
+            .lastUpdateDatetimeTo(lastUpdateDatetimeTo)
+            .build();
+        int shape = ShipmentSearchQueryBuilder.shape(criteria);
+        String queryString = ShipmentSearchQueryBuilder.template(shape).selectWithTotal();
         
-        log.debug("Executing Query:");
+        log.debug("Executing Query (filter shape {}):", Integer.toBinaryString(shape));
         log.debug("{}", queryString);
         
         try {
-            Query query = entityManager.createNativeQuery(queryString, InboundShipment.class);
-            
-            // Set parameters
-            query.setParameter("trackingNumber", trackingNumber);
-            query.setParameter("scannedNumber", scannedNumber);
-            query.setParameter("status", status);
-            query.setParameter("orderNumber", orderNumber);
-            query.setParameter("lab", lab);
-            query.setParameter("scanUser", scanUser);
-            query.setParameter("clientName", clientName);
-            query.setParameter("shipDateFrom", shipDateFrom);
-            query.setParameter("shipDateTo", shipDateTo);
-            query.setParameter("scanDateFrom", scanDateFrom);
-            query.setParameter("scanDateTo", scanDateTo);
-            query.setParameter("emailReceiveDatetimeFrom", emailReceiveDatetimeFrom);
-            query.setParameter("emailReceiveDatetimeTo", emailReceiveDatetimeTo);
-            query.setParameter("lastUpdateDatetimeFrom", lastUpdateDatetimeFrom);
-            query.setParameter("lastUpdateDatetimeTo", lastUpdateDatetimeTo);
-            
-            log.debug("Query parameters set successfully");
-            
-            // Execute query
-            List<InboundShipment> results = query.getResultList();
-            log.debug("Query executed successfully, found {} results", results.size());
-            
-            // For now, return a simple page - you might want to implement proper pagination
-            return new org.springframework.data.domain.PageImpl<>(results, pageable, results.size());
+            Page<InboundShipment> page = search(criteria, shape, pageable, InboundShipment.class);
+            log.debug("Query executed successfully, returned {} of {} results (offset {})",
+                    page.getNumberOfElements(), page.getTotalElements(), pageable.getOffset());
+            return page;
             
         } catch (Exception e) {
             log.error("Error executing V2 search query", e);
@@ -125,4 +137,129 @@ public class InboundShipmentRepositoryImpl {
             log.debug("=== Repository V2 Search Completed ===");
         }
     }
+
+    // Paged search over only the supplied filters, with the exact total taken from the same statement
+    public Page<InboundShipment> search(ShipmentSearchCriteria criteria, Pageable pageable) {
+        return search(criteria, pageable, InboundShipment.class);
+    }
+
+    // rowType is InboundShipment or ShipmentListRow; list rows are selected column by column and never
+    // load an entity
+    public <T> Page<T> search(ShipmentSearchCriteria criteria, Pageable pageable, Class<T> rowType) {
+        return search(criteria, ShipmentSearchQueryBuilder.shape(criteria), pageable, rowType);
+    }
+
+    // setFirstResult/setMaxResults become OFFSET ... FETCH NEXT on SQL Server, so only one page is read;
+    // COUNT(*) OVER () rides on every row, so the separate count round trip is only needed when the
+    // page came back empty past the end of the result
+    private <T> Page<T> search(ShipmentSearchCriteria criteria, int shape, Pageable pageable, Class<T> rowType) {
+        ShipmentSearchQueryBuilder.Template template = ShipmentSearchQueryBuilder.template(shape);
+
+        Query query = rowType == ShipmentListRow.class
+                ? entityManager.createNativeQuery(template.selectRowsWithTotal(), InboundShipment.LIST_ROW_WITH_TOTAL_COUNT)
+                : entityManager.createNativeQuery(template.selectWithTotal(), InboundShipment.WITH_TOTAL_COUNT);
+        ShipmentSearchQueryBuilder.bind(query, criteria, shape);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<Object[]> rows = query.getResultList();
+
+        List<T> content = new ArrayList<>(rows.size());
+        long total = 0;
+        for (Object[] row : rows) {
+            content.add(rowType.cast(row[0]));
+            total = ((Number) row[1]).longValue();
+        }
+        if (rows.isEmpty() && pageable.getOffset() > 0) {
+            Query count = entityManager.createNativeQuery(template.count());
+            ShipmentSearchQueryBuilder.bind(count, criteria, shape);
+            total = ((Number) count.getSingleResult()).longValue();
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // Page without a total: one row past the page tells whether another page exists
+    public Slice<InboundShipment> searchSlice(ShipmentSearchCriteria criteria, Pageable pageable) {
+        return searchSlice(criteria, pageable, InboundShipment.class);
+    }
+
+    public <T> Slice<T> searchSlice(ShipmentSearchCriteria criteria, Pageable pageable, Class<T> rowType) {
+        int shape = ShipmentSearchQueryBuilder.shape(criteria);
+        Query query = selectQuery(ShipmentSearchQueryBuilder.template(shape), rowType);
+        ShipmentSearchQueryBuilder.bind(query, criteria, shape);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageable.getPageSize())) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // Number of matching rows, but never more than cap: the scan stops once cap rows are found
+    public long countAtMost(ShipmentSearchCriteria criteria, long cap) {
+        int shape = ShipmentSearchQueryBuilder.shape(criteria);
+        Query count = entityManager.createNativeQuery(ShipmentSearchQueryBuilder.template(shape).countAtMost());
+        ShipmentSearchQueryBuilder.bind(count, criteria, shape);
+        count.setParameter("countCap", cap);
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    // Keyset page: the criteria carry the Row_ID cursor, so this seeks straight to it and reads
+    // at most limit rows whatever the depth; no offset and no count
+    public List<InboundShipment> seek(ShipmentSearchCriteria criteria, int limit) {
+        return seek(criteria, limit, InboundShipment.class);
+    }
+
+    public <T> List<T> seek(ShipmentSearchCriteria criteria, int limit, Class<T> rowType) {
+        int shape = ShipmentSearchQueryBuilder.shape(criteria);
+        Query query = selectQuery(ShipmentSearchQueryBuilder.template(shape), rowType);
+        ShipmentSearchQueryBuilder.bind(query, criteria, shape);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    // Stamps one shipment in a single round trip, touching only the scan columns. Hibernate maps the row read
+    // back onto an instance already managed for that id without refreshing it, so pending changes are flushed
+    // and the persistence context cleared first, as @Modifying(flushAutomatically, clearAutomatically) would
+    // for an update; the caller gets the stored row, not a stale instance.
+    @Transactional
+    public Optional<InboundShipment> stampScan(Long id, LocalDateTime scanTime, String scanUser, String scannedNumber,
+                                               LocalDateTime lastUpdateDatetime) {
+        entityManager.flush();
+        entityManager.clear();
+        Query query = entityManager.createNativeQuery(STAMP_SCAN, InboundShipment.class);
+        query.setParameter("id", id);
+        query.setParameter("scanTime", scanTime);
+        query.setParameter("scanUser", scanUser);
+        query.setParameter("scannedNumber", scannedNumber);
+        query.setParameter("lastUpdateDatetime", lastUpdateDatetime);
+        List<InboundShipment> rows = query.getResultList();
+        return rows.stream().findFirst();
+    }
+
+    // List rows for the listing endpoints; same predicates as the entity queries in InboundShipmentRepository
+
+    public List<ShipmentListRow> findRecentRows(long cursor, int limit) {
+        Query query = entityManager.createNativeQuery(RECENT_ROWS, InboundShipment.LIST_ROW);
+        query.setParameter("cursor", cursor);
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    public List<ShipmentListRow> findTodayRows() {
+        return entityManager.createNativeQuery(TODAY_ROWS, InboundShipment.LIST_ROW).getResultList();
+    }
+
+    public List<ShipmentListRow> findRowsByScanDateRange(LocalDate fromDate, LocalDate toDate) {
+        Query query = entityManager.createNativeQuery(SCAN_DATE_RANGE_ROWS, InboundShipment.LIST_ROW);
+        query.setParameter("fromDate", fromDate);
+        query.setParameter("toDate", toDate);
+        return query.getResultList();
+    }
+
+    private Query selectQuery(ShipmentSearchQueryBuilder.Template template, Class<?> rowType) {
+        return rowType == ShipmentListRow.class
+                ? entityManager.createNativeQuery(template.selectRows(), InboundShipment.LIST_ROW)
+                : entityManager.createNativeQuery(template.select(), InboundShipment.class);
+    }
 }
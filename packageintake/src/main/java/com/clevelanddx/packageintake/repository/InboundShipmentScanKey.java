@@ -0,0 +1,8 @@
+package com.clevelanddx.packageintake.repository;
+
+// Narrow projection used to build the in-memory scan lookup structures without loading whole entities
+public interface InboundShipmentScanKey {
+    Long getRowId();
+    String getTrackingNumber();
+    String getScannedNumber();
+}
@@ -0,0 +1,11 @@
+package com.clevelanddx.packageintake.repository;
+
+import java.time.LocalDateTime;
+
+// One candidate shipment for one entry of a batch scan; item is the entry's position in the batch
+public interface InboundShipmentScanMatch {
+    Integer getItem();
+    Long getRowId();
+    String getTrackingNumber();
+    LocalDateTime getScanTime();
+}
@@ -0,0 +1,180 @@
+package com.clevelanddx.packageintake.repository;
+
+import java.time.LocalDate;
+
+// Filters for a shipment search; a null field is not filtered on
+public class ShipmentSearchCriteria {
+    private String trackingNumber;
+    private String scannedNumber;
+    private String status;
+    private String orderNumber;
+    private String lab;
+    private String scanUser;
+    private String clientName;
+    private LocalDate shipDateFrom;
+    private LocalDate shipDateTo;
+    private LocalDate scanDateFrom;
+    private LocalDate scanDateTo;
+    private LocalDate emailReceiveDatetimeFrom;
+    private LocalDate emailReceiveDatetimeTo;
+    private LocalDate lastUpdateDatetimeFrom;
+    private LocalDate lastUpdateDatetimeTo;
+    // Keyset cursor: only rows below this Row_ID
+    private Long afterRowId;
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public String getScannedNumber() {
+        return scannedNumber;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public String getLab() {
+        return lab;
+    }
+
+    public String getScanUser() {
+        return scanUser;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public LocalDate getShipDateFrom() {
+        return shipDateFrom;
+    }
+
+    public LocalDate getShipDateTo() {
+        return shipDateTo;
+    }
+
+    public LocalDate getScanDateFrom() {
+        return scanDateFrom;
+    }
+
+    public LocalDate getScanDateTo() {
+        return scanDateTo;
+    }
+
+    public LocalDate getEmailReceiveDatetimeFrom() {
+        return emailReceiveDatetimeFrom;
+    }
+
+    public LocalDate getEmailReceiveDatetimeTo() {
+        return emailReceiveDatetimeTo;
+    }
+
+    public LocalDate getLastUpdateDatetimeFrom() {
+        return lastUpdateDatetimeFrom;
+    }
+
+    public LocalDate getLastUpdateDatetimeTo() {
+        return lastUpdateDatetimeTo;
+    }
+
+    public Long getAfterRowId() {
+        return afterRowId;
+    }
+
+    public static ShipmentSearchCriteriaBuilder builder() {
+        return new ShipmentSearchCriteriaBuilder();
+    }
+
+    public static class ShipmentSearchCriteriaBuilder {
+        private final ShipmentSearchCriteria criteria = new ShipmentSearchCriteria();
+
+        public ShipmentSearchCriteriaBuilder trackingNumber(String trackingNumber) {
+            criteria.trackingNumber = trackingNumber;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder scannedNumber(String scannedNumber) {
+            criteria.scannedNumber = scannedNumber;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder status(String status) {
+            criteria.status = status;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder orderNumber(String orderNumber) {
+            criteria.orderNumber = orderNumber;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder lab(String lab) {
+            criteria.lab = lab;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder scanUser(String scanUser) {
+            criteria.scanUser = scanUser;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder clientName(String clientName) {
+            criteria.clientName = clientName;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder shipDateFrom(LocalDate shipDateFrom) {
+            criteria.shipDateFrom = shipDateFrom;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder shipDateTo(LocalDate shipDateTo) {
+            criteria.shipDateTo = shipDateTo;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder scanDateFrom(LocalDate scanDateFrom) {
+            criteria.scanDateFrom = scanDateFrom;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder scanDateTo(LocalDate scanDateTo) {
+            criteria.scanDateTo = scanDateTo;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder emailReceiveDatetimeFrom(LocalDate emailReceiveDatetimeFrom) {
+            criteria.emailReceiveDatetimeFrom = emailReceiveDatetimeFrom;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder emailReceiveDatetimeTo(LocalDate emailReceiveDatetimeTo) {
+            criteria.emailReceiveDatetimeTo = emailReceiveDatetimeTo;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder lastUpdateDatetimeFrom(LocalDate lastUpdateDatetimeFrom) {
+            criteria.lastUpdateDatetimeFrom = lastUpdateDatetimeFrom;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder lastUpdateDatetimeTo(LocalDate lastUpdateDatetimeTo) {
+            criteria.lastUpdateDatetimeTo = lastUpdateDatetimeTo;
+            return this;
+        }
+
+        public ShipmentSearchCriteriaBuilder afterRowId(Long afterRowId) {
+            criteria.afterRowId = afterRowId;
+            return this;
+        }
+
+        public ShipmentSearchCriteria build() {
+            return criteria;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.clevelanddx.packageintake.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Query;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Builds search SQL containing only the predicates the caller supplied, instead of one catch-all
+// "(:x IS NULL OR ...)" statement whose single cached plan has to serve every filter combination.
+// The set of supplied filters (the shape) is a bitmask; statement text is cached per shape, so each
+// combination gets its own plan and the number of distinct statements stays bounded.
+final class ShipmentSearchQueryBuilder {
+
+    // Date filters on datetime columns are half-open ranges [from, to + 1 day) so the column is
+    // compared as stored and the date indexes can be seeked; the date parameters widen to DATETIME
+    enum Filter {
+        TRACKING_NUMBER("trackingNumber", "s.Tracking_Number LIKE CONCAT('%', :trackingNumber, '%')", ShipmentSearchCriteria::getTrackingNumber),
+        SCANNED_NUMBER("scannedNumber", "s.Scanned_Number LIKE CONCAT('%', :scannedNumber, '%')", ShipmentSearchCriteria::getScannedNumber),
+        STATUS("status", "s.Status LIKE CONCAT('%', :status, '%')", ShipmentSearchCriteria::getStatus),
+        ORDER_NUMBER("orderNumber", "s.Order_Number LIKE CONCAT('%', :orderNumber, '%')", ShipmentSearchCriteria::getOrderNumber),
+        LAB("lab", "s.Lab LIKE CONCAT('%', :lab, '%')", ShipmentSearchCriteria::getLab),
+        SCAN_USER("scanUser", "s.Scan_User LIKE CONCAT('%', :scanUser, '%')", ShipmentSearchCriteria::getScanUser),
+        CLIENT_NAME("clientName", "LOWER(s.Client) LIKE LOWER(CONCAT('%', :clientName, '%'))", ShipmentSearchCriteria::getClientName),
+        SHIP_DATE_FROM("shipDateFrom", "s.Ship_Date >= :shipDateFrom", ShipmentSearchCriteria::getShipDateFrom),
+        SHIP_DATE_TO("shipDateTo", "s.Ship_Date <= :shipDateTo", ShipmentSearchCriteria::getShipDateTo),
+        SCAN_DATE_FROM("scanDateFrom", "s.Scan_Time >= :scanDateFrom", ShipmentSearchCriteria::getScanDateFrom),
+        SCAN_DATE_TO("scanDateTo", "s.Scan_Time < DATEADD(day, 1, :scanDateTo)", ShipmentSearchCriteria::getScanDateTo),
+        EMAIL_RECEIVE_DATETIME_FROM("emailReceiveDatetimeFrom", "s.Email_Receive_Datetime >= :emailReceiveDatetimeFrom", ShipmentSearchCriteria::getEmailReceiveDatetimeFrom),
+        EMAIL_RECEIVE_DATETIME_TO("emailReceiveDatetimeTo", "s.Email_Receive_Datetime < DATEADD(day, 1, :emailReceiveDatetimeTo)", ShipmentSearchCriteria::getEmailReceiveDatetimeTo),
+        LAST_UPDATE_DATETIME_FROM("lastUpdateDatetimeFrom", "s.Last_Update_Datetime >= :lastUpdateDatetimeFrom", ShipmentSearchCriteria::getLastUpdateDatetimeFrom),
+        LAST_UPDATE_DATETIME_TO("lastUpdateDatetimeTo", "s.Last_Update_Datetime < DATEADD(day, 1, :lastUpdateDatetimeTo)", ShipmentSearchCriteria::getLastUpdateDatetimeTo),
+        AFTER_ROW_ID("afterRowId", "s.Row_ID < :afterRowId", ShipmentSearchCriteria::getAfterRowId),
+        // Trigram narrowing for the contains filters above; set only when the term has whole trigrams
+        TRACKING_NUMBER_GRAMS("trackingNumberGrams", gramPredicate(NGRAM_TRACKING_NUMBER, "trackingNumberGrams"), c -> trigrams(c.getTrackingNumber())),
+        SCANNED_NUMBER_GRAMS("scannedNumberGrams", gramPredicate(NGRAM_SCANNED_NUMBER, "scannedNumberGrams"), c -> trigrams(c.getScannedNumber())),
+        ORDER_NUMBER_GRAMS("orderNumberGrams", gramPredicate(NGRAM_ORDER_NUMBER, "orderNumberGrams"), c -> trigrams(c.getOrderNumber())),
+        CLIENT_NAME_GRAMS("clientNameGrams", gramPredicate(NGRAM_CLIENT, "clientNameGrams"), c -> trigrams(c.getClientName()));
+
+        private final String parameter;
+        private final String predicate;
+        private final Function<ShipmentSearchCriteria, Object> value;
+
+        Filter(String parameter, String predicate, Function<ShipmentSearchCriteria, Object> value) {
+            this.parameter = parameter;
+            this.predicate = predicate;
+            this.value = value;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    // Field codes in Inbound_Shipments_Ngram, see V13__Create_Inbound_Shipments_Ngram.sql
+    static final int NGRAM_TRACKING_NUMBER = 1;
+    static final int NGRAM_SCANNED_NUMBER = 2;
+    static final int NGRAM_ORDER_NUMBER = 3;
+    static final int NGRAM_CLIENT = 4;
+    private static final int GRAM_LENGTH = 3;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    static final String COLUMNS = """
+        s.Row_ID, s.Client, s.Tracking_Number, s.Scanned_Number, s.Status,
+        s.Email_ID, s.Order_Number, s.Ship_Date, s.Lab, s.Weight,
+        s.Number_Of_Samples, s.Pickup_Time, s.Pickup_Time_2,
+        s.Email_Receive_Datetime, s.Last_Update_Datetime, s.Scan_Time,
+        s.Scan_User, s.Client_ID, s.Shipment_Type""";
+
+    // Aliased to the ShipmentListRow property names, see InboundShipment.LIST_ROW
+    static final String ROW_COLUMNS = """
+        s.Row_ID AS rowId, s.Tracking_Number AS trackingNumber, s.Client AS client,
+        s.Status AS status, s.Lab AS lab, s.Scan_Time AS scanTime""";
+
+    private static final Map<Integer, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    // Column alias of the window-function total in selectWithTotal(), see InboundShipment.WITH_TOTAL_COUNT
+    static final String TOTAL_COUNT_COLUMN = "Total_Count";
+
+    static final class Template {
+        private final String select;
+        private final String selectWithTotal;
+        private final String selectRows;
+        private final String selectRowsWithTotal;
+        private final String count;
+        private final String countAtMost;
+
+        private Template(String select, String selectWithTotal, String selectRows, String selectRowsWithTotal,
+                         String count, String countAtMost) {
+            this.select = select;
+            this.selectWithTotal = selectWithTotal;
+            this.selectRows = selectRows;
+            this.selectRowsWithTotal = selectRowsWithTotal;
+            this.count = count;
+            this.countAtMost = countAtMost;
+        }
+
+        String select() {
+            return select;
+        }
+
+        // Page query that also carries the total of all matching rows on every row; the window is
+        // evaluated before OFFSET ... FETCH, so one statement returns both the page and the count
+        String selectWithTotal() {
+            return selectWithTotal;
+        }
+
+        // select() and selectWithTotal() narrowed to the ShipmentListRow columns
+        String selectRows() {
+            return selectRows;
+        }
+
+        String selectRowsWithTotal() {
+            return selectRowsWithTotal;
+        }
+
+        String count() {
+            return count;
+        }
+
+        // Stops counting at :countCap rows
+        String countAtMost() {
+            return countAtMost;
+        }
+    }
+
+    private ShipmentSearchQueryBuilder() {
+    }
+
+    static int shape(ShipmentSearchCriteria criteria) {
+        int shape = 0;
+        for (Filter filter : Filter.values()) {
+            if (filter.value.apply(criteria) != null) {
+                shape |= filter.bit();
+            }
+        }
+        return shape;
+    }
+
+    static Template template(int shape) {
+        return TEMPLATES.computeIfAbsent(shape, ShipmentSearchQueryBuilder::build);
+    }
+
+    static void bind(Query query, ShipmentSearchCriteria criteria, int shape) {
+        for (Filter filter : Filter.values()) {
+            if ((shape & filter.bit()) != 0) {
+                query.setParameter(filter.parameter, filter.value.apply(criteria));
+            }
+        }
+    }
+
+    // Candidate rows are those holding every trigram of the term; the LIKE predicate still verifies them
+    private static String gramPredicate(int field, String parameter) {
+        return "s.Row_ID IN (SELECT g.Row_ID FROM Inbound_Shipments_Ngram g"
+                + " WHERE g.Field = " + field
+                + " AND g.Gram IN (SELECT Gram FROM OPENJSON(:" + parameter + ") WITH (Gram NVARCHAR(3) '$'))"
+                + " GROUP BY g.Row_ID"
+                + " HAVING COUNT(*) = (SELECT COUNT(*) FROM OPENJSON(:" + parameter + ")))";
+    }
+
+    // JSON array of the distinct upper-cased trigrams of the term, or null when the term cannot be
+    // narrowed: shorter than a trigram once trimmed, or carrying LIKE wildcards the postings cannot express
+    static String trigrams(String term) {
+        if (term == null) {
+            return null;
+        }
+        String stripped = term.strip();
+        if (stripped.length() < GRAM_LENGTH || stripped.indexOf('%') >= 0 || stripped.indexOf('_') >= 0
+                || stripped.indexOf('[') >= 0) {
+            return null;
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= stripped.length(); i++) {
+            char[] gram = new char[GRAM_LENGTH];
+            for (int j = 0; j < GRAM_LENGTH; j++) {
+                gram[j] = Character.toUpperCase(stripped.charAt(i + j));
+            }
+            grams.add(new String(gram));
+        }
+        try {
+            return JSON.writeValueAsString(grams);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize search trigrams", e);
+        }
+    }
+
+    static int cachedTemplateCount() {
+        return TEMPLATES.size();
+    }
+
+    private static Template build(int shape) {
+        String from = "\nFROM Inbound_Shipments s" + where(shape);
+        String order = "\nORDER BY s.Row_ID DESC";
+        String total = ",\n    COUNT_BIG(*) OVER () AS " + TOTAL_COUNT_COLUMN;
+        return new Template(
+                "SELECT " + COLUMNS + from + order,
+                "SELECT " + COLUMNS + total + from + order,
+                "SELECT " + ROW_COLUMNS + from + order,
+                "SELECT " + ROW_COLUMNS + total + from + order,
+                "SELECT COUNT_BIG(*)" + from,
+                "SELECT COUNT_BIG(*)\nFROM (SELECT TOP (:countCap) s.Row_ID" + from + ") capped");
+    }
+
+    private static String where(int shape) {
+        if (shape == 0) {
+            return "";
+        }
+        StringJoiner predicates = new StringJoiner("\nAND ", "\nWHERE ", "");
+        for (Filter filter : Filter.values()) {
+            if ((shape & filter.bit()) != 0) {
+                predicates.add(filter.predicate);
+            }
+        }
+        return predicates.toString();
+    }
+}
@@ -3,22 +3,43 @@ package com.clevelanddx.packageintake.service;
 import com.clevelanddx.packageintake.dto.ClientDTO;
 import com.clevelanddx.packageintake.model.Client;
 import com.clevelanddx.packageintake.repository.ClientRepository;
+import com.clevelanddx.packageintake.service.index.ClientNameIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
+// All clients held as one immutable snapshot (by id, by name, sorted by name) that is swapped as a
+// whole. Writes apply a delta to a copy instead of dropping everything, and the full load runs at most
+// once at a time however many readers arrive while it is in flight. Clients inserted outside this
+// service are picked up by a periodic Row_ID catch-up.
 @Service
 public class ClientCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientCacheService.class);
+
+    private static final Comparator<ClientDTO> BY_NAME = Comparator
+            .comparing(ClientDTO::getClient, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(ClientDTO::getId);
+
     private final ClientRepository clientRepository;
-    private final Map<String, ClientDTO> clientCache = new ConcurrentHashMap<>();
-    private final Map<Long, ClientDTO> clientIdCache = new ConcurrentHashMap<>();
-    private List<ClientDTO> allClientsCache;
+    // Guards loading and publishing, so a delta never lands on a snapshot that a load is replacing
+    private final Object lock = new Object();
+    // null until first use and after clearCache
+    private volatile Snapshot snapshot;
+    // Highest Row_ID read from the table by the load or a catch-up. put() never moves it: a client put
+    // after a lookup or create can have a higher id than trigger inserts not read yet.
+    private long syncedId;
 
     @Autowired
     public ClientCacheService(ClientRepository clientRepository) {
@@ -26,54 +47,136 @@ public class ClientCacheService {
     }
 
     public List<ClientDTO> getAllClients() {
-        if (allClientsCache != null) {
-            return allClientsCache;
+        return snapshot().all;
+    }
+
+    // Same clients as getAllClients, converted once per snapshot rather than on every call
+    public List<Client> getAllClientEntities() {
+        return snapshot().entities;
+    }
+
+    // Clients whose name contains term, best match first, without touching the database; limit <= 0
+    // returns every match
+    public List<Client> search(String term, int limit) {
+        Snapshot current = snapshot();
+        int[] positions = current.names.search(term, limit);
+        List<Client> clients = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            clients.add(current.entities.get(position));
         }
-        
-        List<Client> clients = clientRepository.findAll();
-        allClientsCache = clients.stream()
-                .map(this::convertToDTO)
-                .peek(dto -> {
-                    clientCache.put(dto.getClient(), dto);
-                    clientIdCache.put(dto.getId(), dto);
-                })
-                .collect(Collectors.toList());
-        return allClientsCache;
+        return clients;
     }
 
     public Optional<ClientDTO> getClientById(Long id) {
-        ClientDTO cached = clientIdCache.get(id);
+        ClientDTO cached = snapshot().byId.get(id);
         if (cached != null) {
             return Optional.of(cached);
         }
-        return clientRepository.findById(id)
-                .map(this::convertToDTO)
-                .map(dto -> {
-                    clientCache.put(dto.getClient(), dto);
-                    clientIdCache.put(dto.getId(), dto);
-                    return dto;
-                });
+        // Clients are also inserted by the Inbound_Shipments trigger, outside this service
+        return clientRepository.findById(id).map(this::put);
     }
 
     public Optional<ClientDTO> getClientByName(String clientName) {
-        ClientDTO cached = clientCache.get(clientName);
+        ClientDTO cached = snapshot().byName.get(clientName);
         if (cached != null) {
             return Optional.of(cached);
         }
-        return clientRepository.findByClient(clientName)
-                .map(this::convertToDTO)
-                .map(dto -> {
-                    clientCache.put(dto.getClient(), dto);
-                    clientIdCache.put(dto.getId(), dto);
-                    return dto;
-                });
+        return clientRepository.findByClient(clientName).map(this::put);
+    }
+
+    // Adds or replaces one client in the snapshot
+    public ClientDTO put(Client client) {
+        ClientDTO dto = convertToDTO(client);
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.with(List.of(dto));
+            }
+        }
+        return dto;
+    }
+
+    public void remove(Long id) {
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            if (current != null) {
+                snapshot = current.without(id);
+            }
+        }
+    }
+
+    // The Inbound_Shipments trigger inserts a client whenever a shipment arrives with a new client name.
+    // Those rows never pass through put, so search and getAllClients would miss them until a restart.
+    // Row_IDs only grow and the trigger never updates or deletes, so one seek past the highest id read
+    // from the table finds them all.
+    @Scheduled(fixedDelayString = "${packageintake.clients.catch-up-interval-ms:30000}",
+               initialDelayString = "${packageintake.clients.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        long watermark;
+        synchronized (lock) {
+            if (snapshot == null) {
+                // The next read loads everything anyway
+                return;
+            }
+            watermark = syncedId;
+        }
+        try {
+            List<Client> added = clientRepository.findByIdGreaterThanOrderByIdAsc(watermark);
+            if (added.isEmpty()) {
+                return;
+            }
+            List<ClientDTO> clients = new ArrayList<>(added.size());
+            for (Client client : added) {
+                clients.add(convertToDTO(client));
+            }
+            synchronized (lock) {
+                Snapshot latest = snapshot;
+                if (latest != null) {
+                    snapshot = latest.with(clients);
+                    syncedId = Math.max(syncedId, maxId(added));
+                }
+            }
+            log.debug("Client cache caught up on {} clients above Row_ID {}", clients.size(), watermark);
+        } catch (Exception e) {
+            log.warn("Client cache catch-up failed, will retry on next cycle", e);
+        }
     }
 
-    @CacheEvict(value = "clients", allEntries = true)
     public void clearCache() {
-        clientCache.clear();
-        clientIdCache.clear();
-        allClientsCache = null;
+        synchronized (lock) {
+            snapshot = null;
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (lock) {
+            current = snapshot;
+            if (current == null) {
+                List<Client> loaded = clientRepository.findAll();
+                List<ClientDTO> clients = new ArrayList<>(loaded.size());
+                for (Client client : loaded) {
+                    clients.add(convertToDTO(client));
+                }
+                current = new Snapshot(clients);
+                snapshot = current;
+                syncedId = maxId(loaded);
+            }
+            return current;
+        }
+    }
+
+    private static long maxId(List<Client> clients) {
+        long highest = 0;
+        for (Client client : clients) {
+            if (client.getId() != null) {
+                highest = Math.max(highest, client.getId());
+            }
+        }
+        return highest;
     }
 
     private ClientDTO convertToDTO(Client client) {
@@ -83,4 +186,63 @@ public class ClientCacheService {
                 .lastUpdateUser(client.getLastUpdateUser())
                 .build();
     }
-} 
\ No newline at end of file
+
+    private static Client convertToEntity(ClientDTO dto) {
+        Client client = new Client();
+        client.setId(dto.getId());
+        client.setClient(dto.getClient());
+        client.setLastUpdateUser(dto.getLastUpdateUser());
+        return client;
+    }
+
+    private static final class Snapshot {
+        private final List<ClientDTO> all;
+        private final List<Client> entities;
+        private final Map<Long, ClientDTO> byId;
+        private final Map<String, ClientDTO> byName;
+        // Positions line up with all and entities
+        private final ClientNameIndex names;
+
+        private Snapshot(Collection<ClientDTO> clients) {
+            Map<Long, ClientDTO> ids = new HashMap<>();
+            for (ClientDTO client : clients) {
+                ids.put(client.getId(), client);
+            }
+            List<ClientDTO> sorted = new ArrayList<>(ids.values());
+            sorted.sort(BY_NAME);
+
+            Map<String, ClientDTO> names = new HashMap<>();
+            List<Client> converted = new ArrayList<>(sorted.size());
+            List<String> clientNames = new ArrayList<>(sorted.size());
+            for (ClientDTO client : sorted) {
+                if (client.getClient() != null) {
+                    names.putIfAbsent(client.getClient(), client);
+                }
+                converted.add(convertToEntity(client));
+                clientNames.add(client.getClient());
+            }
+            this.all = Collections.unmodifiableList(sorted);
+            this.entities = Collections.unmodifiableList(converted);
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.names = ClientNameIndex.build(clientNames);
+        }
+
+        private Snapshot with(Collection<ClientDTO> clients) {
+            Map<Long, ClientDTO> ids = new HashMap<>(byId);
+            for (ClientDTO client : clients) {
+                ids.put(client.getId(), client);
+            }
+            return new Snapshot(ids.values());
+        }
+
+        private Snapshot without(Long id) {
+            if (!byId.containsKey(id)) {
+                return this;
+            }
+            Map<Long, ClientDTO> ids = new HashMap<>(byId);
+            ids.remove(id);
+            return new Snapshot(ids.values());
+        }
+    }
+}
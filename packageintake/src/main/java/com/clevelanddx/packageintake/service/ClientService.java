@@ -13,6 +13,7 @@ public interface ClientService {
     Optional<Client> findByClient(String client);
     List<Client> findByLastUpdateUser(String lastUpdateUser);
     boolean existsByClient(String client);
-    List<Client> searchClients(String searchTerm);
-    List<Client> searchClientByPartial(String searchTerm);
+    // Served from the in-memory client snapshot, ranked best match first; limit <= 0 means no limit
+    List<Client> searchClients(String searchTerm, int limit);
+    List<Client> searchClientByPartial(String searchTerm, int limit);
 } 
\ No newline at end of file
@@ -6,10 +6,11 @@ import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -27,7 +28,7 @@ public class ClientServiceImpl implements ClientService {
     @Override
     public Client create(Client client) {
         Client savedClient = repository.save(client);
-        cacheService.clearCache();
+        afterCommit(() -> cacheService.put(savedClient));
         return savedClient;
     }
 
@@ -39,7 +40,7 @@ public class ClientServiceImpl implements ClientService {
             updatedClient.setClient(client.getClient());
             updatedClient.setLastUpdateUser(client.getLastUpdateUser());
             Client savedClient = repository.save(updatedClient);
-            cacheService.clearCache();
+            afterCommit(() -> cacheService.put(savedClient));
             return savedClient;
         }
         throw new EntityNotFoundException("Client not found with id: " + id);
@@ -51,7 +52,7 @@ public class ClientServiceImpl implements ClientService {
             throw new EntityNotFoundException("Client not found with id: " + id);
         }
         repository.deleteById(id);
-        cacheService.clearCache();
+        afterCommit(() -> cacheService.remove(id));
     }
 
     @Override
@@ -62,9 +63,7 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public List<Client> findAll() {
-        return cacheService.getAllClients().stream()
-                .map(this::convertToEntity)
-                .collect(Collectors.toList());
+        return cacheService.getAllClientEntities();
     }
 
     @Override
@@ -84,19 +83,13 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
-    public List<Client> searchClients(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return findAll();
-        }
-        return repository.searchByClient(searchTerm.trim());
+    public List<Client> searchClients(String searchTerm, int limit) {
+        return cacheService.search(searchTerm, limit);
     }
 
     @Override
-    public List<Client> searchClientByPartial(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return findAll();
-        }
-        return repository.searchClientByPartial(searchTerm.trim());
+    public List<Client> searchClientByPartial(String searchTerm, int limit) {
+        return cacheService.search(searchTerm, limit);
     }
 
     private Client convertToEntity(com.clevelanddx.packageintake.dto.ClientDTO dto) {
@@ -106,4 +99,18 @@ public class ClientServiceImpl implements ClientService {
         client.setLastUpdateUser(dto.getLastUpdateUser());
         return client;
     }
+
+    // Keeps the client snapshot in step with what was actually committed
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 } 
\ No newline at end of file
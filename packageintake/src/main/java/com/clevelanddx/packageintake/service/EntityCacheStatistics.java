@@ -0,0 +1,42 @@
+package com.clevelanddx.packageintake.service;
+
+import com.clevelanddx.packageintake.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hibernate second-level cache counters per region; a region is left out until it exists (caching
+// disabled, or a query region no cached query has used yet)
+@Service
+public class EntityCacheStatistics {
+
+    private final Statistics statistics;
+
+    public EntityCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<CacheRegionStats> regions(String entityRegion, String queryRegion) {
+        List<CacheRegionStats> regions = new ArrayList<>(2);
+        try {
+            regions.add(stats(statistics.getDomainDataRegionStatistics(entityRegion)));
+        } catch (IllegalArgumentException e) {
+            // no such region
+        }
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(queryRegion);
+        if (queries != null) {
+            regions.add(stats(queries));
+        }
+        return regions;
+    }
+
+    private static CacheRegionStats stats(CacheRegionStatistics region) {
+        return new CacheRegionStats(region.getRegionName(), region.getHitCount(), region.getMissCount(),
+                region.getPutCount(), region.getElementCountInMemory());
+    }
+}
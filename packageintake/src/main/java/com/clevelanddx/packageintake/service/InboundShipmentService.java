@@ -1,11 +1,16 @@
 package com.clevelanddx.packageintake.service;
 
+import com.clevelanddx.packageintake.dto.BatchScanRequest;
+import com.clevelanddx.packageintake.dto.BatchScanResponse;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequest;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequestV2;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.SearchCacheStats;
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
 import com.clevelanddx.packageintake.model.InboundShipment;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +23,9 @@ public interface InboundShipmentService {
     Optional<InboundShipment> getShipmentByTrackingNumber(String trackingNumber);
     List<InboundShipment> getShipmentsByClient(String client);
     List<InboundShipment> getShipmentsByStatus(String status);
+    // Keyset pages below the after Row_ID (null starts from the newest row)
+    List<InboundShipment> getShipmentsByClient(String client, Long after, int limit);
+    List<InboundShipment> getShipmentsByStatus(String status, Long after, int limit);
     Optional<InboundShipment> getShipmentByOrderNumber(String orderNumber);
     Optional<InboundShipment> getShipmentByScannedNumber(String scannedNumber);
     Optional<InboundShipment> getShipmentByTrackingNumberInScannedNumber(String scannedNumber);
@@ -25,6 +33,8 @@ public interface InboundShipmentService {
     Optional<InboundShipment> getShipmentByScannedNumberAndOrganization(String scannedNumber, Long organizationId);
     Optional<InboundShipment> getShipmentByTrackingNumberAndOrganization(String trackingNumber, Long organizationId);
     InboundShipment updateScanTime(Long id, String scannedNumber);
+    InboundShipment stampScan(Long id, LocalDateTime scanTime, String scanUser, String scannedNumber);
+    BatchScanResponse scanBatch(BatchScanRequest request);
     
     // New date-based methods
     List<InboundShipment> getTodayShipments();
@@ -33,6 +43,12 @@ public interface InboundShipmentService {
     
     // Recent shipments method
     List<InboundShipment> getRecentShipments(int limit);
+    List<InboundShipment> getRecentShipments(int limit, Long after);
+    
+    // Slim rows for the listing endpoints' default view
+    List<ShipmentListRow> getRecentShipmentRows(int limit, Long after);
+    List<ShipmentListRow> getTodayShipmentRows();
+    List<ShipmentListRow> getShipmentRowsByDateRange(LocalDate fromDate, LocalDate toDate);
     
     // Search method
     InboundShipmentSearchResponse searchShipments(InboundShipmentSearchRequest searchRequest);
@@ -40,10 +56,13 @@ public interface InboundShipmentService {
     // V2 Search method with client name support
     InboundShipmentSearchResponse searchShipmentsV2(InboundShipmentSearchRequestV2 searchRequest);
     
-    // Distinct list methods with caching
+    // Hit/miss counters of the search result cache shared by both search versions
+    SearchCacheStats getSearchCacheStats();
+    
+    // Distinct lists, kept in memory and updated by every write
     List<String> getDistinctScanUsers();
     List<String> getDistinctStatuses();
     
-    // Cache management
+    // Re-reads the distinct lists from the table
     void evictDistinctListsCache();
 } 
\ No newline at end of file
@@ -1,28 +1,51 @@
 package com.clevelanddx.packageintake.service;
 
+import com.clevelanddx.packageintake.dto.BatchScanRequest;
+import com.clevelanddx.packageintake.dto.BatchScanResponse;
+import com.clevelanddx.packageintake.dto.BatchScanResult;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequest;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequestV2;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse.CountMode;
+import com.clevelanddx.packageintake.dto.SearchCacheStats;
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
+import com.clevelanddx.packageintake.dto.ShipmentView;
 import com.clevelanddx.packageintake.model.InboundShipment;
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
 import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
 import com.clevelanddx.packageintake.repository.InboundShipmentRepositoryImpl;
+import com.clevelanddx.packageintake.repository.InboundShipmentScanMatch;
+import com.clevelanddx.packageintake.repository.ShipmentSearchCriteria;
 import com.clevelanddx.packageintake.service.InboundShipmentReferenceService;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecodeResult;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecoderPipeline;
+import com.clevelanddx.packageintake.service.index.DistinctShipmentValues;
+import com.clevelanddx.packageintake.service.index.ScanNegativeCache;
+import com.clevelanddx.packageintake.service.index.TrackingNumberIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,16 +53,33 @@ import java.util.Optional;
 public class InboundShipmentServiceImpl implements InboundShipmentService {
 
     private static final Logger log = LoggerFactory.getLogger(InboundShipmentServiceImpl.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // Count caps: "estimated" stops at a fixed number of rows, "windowed" a few pages past the current one
+    private static final long ESTIMATED_COUNT_THRESHOLD = 10_000;
+    private static final int COUNT_WINDOW_PAGES = 10;
     
     private final InboundShipmentRepository repository;
     private final InboundShipmentRepositoryImpl repositoryImpl;
     private final InboundShipmentReferenceService referenceService;
+    private final TrackingNumberIndex trackingNumberIndex;
+    private final BarcodeDecoderPipeline barcodeDecoderPipeline;
+    private final ScanNegativeCache scanNegativeCache;
+    private final SearchResultCache searchResultCache;
+    private final DistinctShipmentValues distinctValues;
 
     @Autowired
-    public InboundShipmentServiceImpl(InboundShipmentRepository repository, InboundShipmentRepositoryImpl repositoryImpl, InboundShipmentReferenceService referenceService) {
+    public InboundShipmentServiceImpl(InboundShipmentRepository repository, InboundShipmentRepositoryImpl repositoryImpl, InboundShipmentReferenceService referenceService,
+                                      TrackingNumberIndex trackingNumberIndex, BarcodeDecoderPipeline barcodeDecoderPipeline,
+                                      ScanNegativeCache scanNegativeCache, SearchResultCache searchResultCache,
+                                      DistinctShipmentValues distinctValues) {
         this.repository = repository;
         this.repositoryImpl = repositoryImpl;
         this.referenceService = referenceService;
+        this.trackingNumberIndex = trackingNumberIndex;
+        this.barcodeDecoderPipeline = barcodeDecoderPipeline;
+        this.scanNegativeCache = scanNegativeCache;
+        this.searchResultCache = searchResultCache;
+        this.distinctValues = distinctValues;
     }
 
     @Override
@@ -78,7 +118,11 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
         if (shipment.getScanTime() == null) {
             shipment.setScanTime(LocalDateTime.now());
         }
-        return repository.save(shipment);
+        InboundShipment saved = repository.save(shipment);
+        afterCommit(() -> trackingNumberIndex.index(saved));
+        afterCommit(() -> distinctValues.record(saved));
+        afterCommit(searchResultCache::invalidateAll);
+        return saved;
     }
 
     @Override
@@ -118,7 +162,18 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
                     if (shipment.getScanTime() == null) {
                         shipment.setScanTime(existingShipment.getScanTime());
                     }
-                    return repository.save(shipment);
+                    // The scan trigger keeps a row's first Scan_User, so the requested one is only stored
+                    // when the row has none; read before save, which merges into existingShipment
+                    String storedScanUser = existingShipment.getScanUser() != null
+                            ? existingShipment.getScanUser() : shipment.getScanUser();
+                    InboundShipment saved = repository.save(shipment);
+                    afterCommit(() -> trackingNumberIndex.index(saved));
+                    afterCommit(() -> {
+                        distinctValues.recordScanUser(storedScanUser);
+                        distinctValues.recordStatus(saved.getStatus());
+                    });
+                    afterCommit(searchResultCache::invalidateAll);
+                    return saved;
                 })
                 .orElseThrow(() -> new EntityNotFoundException("Shipment not found with id: " + id));
     }
@@ -129,6 +184,8 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
             throw new EntityNotFoundException("Shipment not found with id: " + id);
         }
         repository.deleteById(id);
+        afterCommit(() -> trackingNumberIndex.remove(id));
+        afterCommit(searchResultCache::invalidateAll);
     }
 
     @Override
@@ -156,6 +213,16 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
         return repository.findByStatus(status);
     }
 
+    @Override
+    public List<InboundShipment> getShipmentsByClient(String client, Long after, int limit) {
+        return repository.findByClientBefore(client, cursor(after), limit);
+    }
+
+    @Override
+    public List<InboundShipment> getShipmentsByStatus(String status, Long after, int limit) {
+        return repository.findByStatusBefore(status, cursor(after), limit);
+    }
+
     @Override
     public Optional<InboundShipment> getShipmentByOrderNumber(String orderNumber) {
         return repository.findByOrderNumber(orderNumber);
@@ -168,12 +235,70 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
 
     @Override
     public Optional<InboundShipment> getShipmentByTrackingNumberInScannedNumber(String scannedNumber) {
-        return repository.findFirstByTrackingNumberInScannedNumber(scannedNumber);
+        BarcodeDecodeResult decoded = barcodeDecoderPipeline.decode(scannedNumber);
+        if (decoded.isMalformed()) {
+            // A failed check digit may still be a misread label or a number keyed in by hand
+            log.debug("Malformed {} barcode, falling back to substring lookup: {}", decoded.getCarrier(), scannedNumber);
+        }
+        long missGeneration = scanNegativeCache.generation();
+        if (scanNegativeCache.isKnownMiss(scannedNumber, decoded.getTrackingNumbers())) {
+            return Optional.empty();
+        }
+        // Resolve through the in-memory index first; a miss may still be a row it has not synced yet
+        if (trackingNumberIndex.isReady()) {
+            for (Long rowId : indexedRowIds(scannedNumber, decoded)) {
+                Optional<InboundShipment> shipment = repository.findById(rowId);
+                if (shipment.isPresent()) {
+                    return shipment;
+                }
+            }
+        }
+        // Substring matching is only needed when no carrier layout produced a tracking number
+        Optional<InboundShipment> shipment = decoded.isDecoded()
+                ? repository.findFirstByScannedNumberOrTrackingNumberIn(scannedNumber, decoded.getTrackingNumbers())
+                : repository.findFirstByTrackingNumberInScannedNumber(scannedNumber);
+        if (shipment.isEmpty()) {
+            scanNegativeCache.recordMiss(scannedNumber, missGeneration);
+        }
+        return shipment;
     }
 
     @Override
     public List<InboundShipment> getAllShipmentsByTrackingNumberInScannedNumber(String scannedNumber) {
-        return repository.findAllByTrackingNumberInScannedNumber(scannedNumber);
+        BarcodeDecodeResult decoded = barcodeDecoderPipeline.decode(scannedNumber);
+        if (decoded.isMalformed()) {
+            // A failed check digit may still be a misread label or a number keyed in by hand
+            log.debug("Malformed {} barcode, falling back to substring lookup: {}", decoded.getCarrier(), scannedNumber);
+        }
+        long missGeneration = scanNegativeCache.generation();
+        if (scanNegativeCache.isKnownMiss(scannedNumber, decoded.getTrackingNumbers())) {
+            return List.of();
+        }
+        if (trackingNumberIndex.isReady()) {
+            List<Long> rowIds = indexedRowIds(scannedNumber, decoded);
+            if (!rowIds.isEmpty()) {
+                List<InboundShipment> shipments = repository.findAllById(rowIds);
+                if (!shipments.isEmpty()) {
+                    shipments.sort(Comparator.comparing(InboundShipment::getRowId).reversed());
+                    return shipments;
+                }
+            }
+        }
+        List<InboundShipment> shipments = decoded.isDecoded()
+                ? repository.findAllByScannedNumberOrTrackingNumberIn(scannedNumber, decoded.getTrackingNumbers())
+                : repository.findAllByTrackingNumberInScannedNumber(scannedNumber);
+        if (shipments.isEmpty()) {
+            scanNegativeCache.recordMiss(scannedNumber, missGeneration);
+        }
+        return shipments;
+    }
+
+    private List<Long> indexedRowIds(String scannedNumber, BarcodeDecodeResult decoded) {
+        if (!decoded.isDecoded()) {
+            return trackingNumberIndex.findRowIds(scannedNumber);
+        }
+        List<Long> exact = trackingNumberIndex.findRowIdsByScannedNumber(scannedNumber);
+        return exact.isEmpty() ? trackingNumberIndex.findRowIdsByTrackingNumbers(decoded.getTrackingNumbers()) : exact;
     }
 
     @Override
@@ -188,15 +313,110 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
 
     @Override
     public InboundShipment updateScanTime(Long id, String scannedNumber) {
-        return repository.findById(id)
-                .map(existingShipment -> {
-                    existingShipment.setScanTime(LocalDateTime.now());
-                    existingShipment.setScannedNumber(scannedNumber);
-                    return repository.save(existingShipment);
-                })
+        return stampScan(id, LocalDateTime.now(), null, scannedNumber);
+    }
+
+    @Override
+    public InboundShipment stampScan(Long id, LocalDateTime scanTime, String scanUser, String scannedNumber) {
+        InboundShipment stamped = repositoryImpl.stampScan(id, scanTime != null ? scanTime : LocalDateTime.now(),
+                        scanUser, scannedNumber, LocalDateTime.now())
                 .orElseThrow(() -> new EntityNotFoundException("Shipment not found with id: " + id));
+        afterCommit(() -> trackingNumberIndex.index(stamped));
+        // The trigger keeps the first scan's user, so record what the row actually holds
+        afterCommit(() -> distinctValues.recordScanUser(stamped.getScanUser()));
+        afterCommit(searchResultCache::invalidateAll);
+        return stamped;
     }
     
+    @Override
+    public BatchScanResponse scanBatch(BatchScanRequest request) {
+        List<String> scannedNumbers = request.getScannedNumbers();
+        LocalDateTime scanTime = request.getScanTime() != null ? request.getScanTime() : LocalDateTime.now();
+        BatchScanResult[] results = new BatchScanResult[scannedNumbers.size()];
+
+        // Decode everything up front; scans with no carrier tracking number (unrecognized or failing their
+        // check digit) are matched by substring
+        List<Map<String, Object>> scans = new ArrayList<>();
+        List<Integer> scanPositions = new ArrayList<>();
+        for (int i = 0; i < scannedNumbers.size(); i++) {
+            String scannedNumber = scannedNumbers.get(i) == null ? "" : scannedNumbers.get(i).trim();
+            BarcodeDecodeResult decoded = barcodeDecoderPipeline.decode(scannedNumber);
+            if (scannedNumber.isEmpty() || scanNegativeCache.isKnownMiss(scannedNumber, decoded.getTrackingNumbers())) {
+                results[i] = BatchScanResult.notFound(scannedNumber);
+                continue;
+            }
+            Map<String, Object> scan = new LinkedHashMap<>();
+            scan.put("s", scannedNumber);
+            if (decoded.isDecoded()) {
+                scan.put("t", decoded.getTrackingNumbers());
+            }
+            scans.add(scan);
+            scanPositions.add(i);
+        }
+
+        long missGeneration = scanNegativeCache.generation();
+        Map<Integer, List<InboundShipmentScanMatch>> matchesByItem = new HashMap<>();
+        if (!scans.isEmpty()) {
+            for (InboundShipmentScanMatch match : repository.findScanMatches(toJson(scans))) {
+                matchesByItem.computeIfAbsent(match.getItem(), item -> new ArrayList<>()).add(match);
+            }
+        }
+
+        // Only unambiguous matches are stamped; a box scanned twice in one batch is stamped once
+        Map<Long, Map<String, Object>> stamps = new LinkedHashMap<>();
+        Map<Long, String> stampedTracking = new HashMap<>();
+        boolean firstScans = false;
+        for (int item = 0; item < scans.size(); item++) {
+            String scannedNumber = (String) scans.get(item).get("s");
+            List<InboundShipmentScanMatch> matches = matchesByItem.getOrDefault(item, List.of());
+            BatchScanResult result;
+            if (matches.isEmpty()) {
+                result = BatchScanResult.notFound(scannedNumber);
+                scanNegativeCache.recordMiss(scannedNumber, missGeneration);
+            } else if (matches.size() > 1) {
+                result = BatchScanResult.ambiguous(scannedNumber,
+                        matches.stream().map(InboundShipmentScanMatch::getRowId).toList());
+            } else {
+                InboundShipmentScanMatch match = matches.get(0);
+                result = BatchScanResult.matched(scannedNumber, match.getRowId(), match.getTrackingNumber(),
+                        match.getScanTime() != null || stamps.containsKey(match.getRowId()));
+                if (!stamps.containsKey(match.getRowId())) {
+                    firstScans |= match.getScanTime() == null;
+                    Map<String, Object> stamp = new LinkedHashMap<>();
+                    stamp.put("r", match.getRowId());
+                    stamp.put("s", scannedNumber);
+                    stamps.put(match.getRowId(), stamp);
+                }
+                stampedTracking.putIfAbsent(match.getRowId(), match.getTrackingNumber());
+            }
+            results[scanPositions.get(item)] = result;
+        }
+
+        if (!stamps.isEmpty()) {
+            repository.stampScans(toJson(stamps.values()), scanTime, request.getScanUser(), LocalDateTime.now());
+            afterCommit(() -> stamps.forEach((rowId, stamp) ->
+                    trackingNumberIndex.index(rowId, stampedTracking.get(rowId), (String) stamp.get("s"))));
+            if (firstScans) {
+                // Rows already scanned keep their original Scan_User, so only first scans introduce it
+                afterCommit(() -> distinctValues.recordScanUser(request.getScanUser()));
+            }
+            afterCommit(searchResultCache::invalidateAll);
+        }
+
+        BatchScanResponse response = BatchScanResponse.of(Arrays.asList(results));
+        log.debug("Batch scan of {} barcodes: {} matched, {} ambiguous, {} not found",
+                results.length, response.getMatched(), response.getAmbiguous(), response.getNotFound());
+        return response;
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize batch scan parameters", e);
+        }
+    }
+
     @Override
     public List<InboundShipment> getTodayShipments() {
         return repository.findTodayShipments();
@@ -216,42 +436,181 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
     public List<InboundShipment> getRecentShipments(int limit) {
         return repository.findRecentShipments(limit);
     }
+
+    @Override
+    public List<InboundShipment> getRecentShipments(int limit, Long after) {
+        return after == null ? repository.findRecentShipments(limit) : repository.findRecentShipmentsBefore(after, limit);
+    }
+
+    @Override
+    public List<ShipmentListRow> getRecentShipmentRows(int limit, Long after) {
+        return repositoryImpl.findRecentRows(cursor(after), limit);
+    }
+
+    @Override
+    public List<ShipmentListRow> getTodayShipmentRows() {
+        return repositoryImpl.findTodayRows();
+    }
+
+    @Override
+    public List<ShipmentListRow> getShipmentRowsByDateRange(LocalDate fromDate, LocalDate toDate) {
+        return repositoryImpl.findRowsByScanDateRange(fromDate, toDate);
+    }
+
+    // A missing cursor means the first page, i.e. everything below the largest possible Row_ID
+    private static long cursor(Long after) {
+        return after == null ? Long.MAX_VALUE : after;
+    }
     
     @Override
     public InboundShipmentSearchResponse searchShipments(InboundShipmentSearchRequest searchRequest) {
         // Create pageable object
         Pageable pageable = PageRequest.of(searchRequest.getPage(), searchRequest.getSize());
         
-        // Call repository search method
-        Page<InboundShipment> page = repository.searchShipments(
-            searchRequest.getTrackingNumber(),
-            searchRequest.getScannedNumber(),
-            searchRequest.getStatus(),
-            searchRequest.getOrderNumber(),
-            searchRequest.getLab(),
-            searchRequest.getScanUser(),
-            searchRequest.getShipDateFrom(),
-            searchRequest.getShipDateTo(),
-            searchRequest.getScanDateFrom(),
-            searchRequest.getScanDateTo(),
-            searchRequest.getEmailReceiveDatetimeFrom(),
-            searchRequest.getEmailReceiveDatetimeTo(),
-            searchRequest.getLastUpdateDatetimeFrom(),
-            searchRequest.getLastUpdateDatetimeTo(),
-            pageable
-        );
+        // Only the supplied filters end up in the generated SQL
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+            .trackingNumber(searchRequest.getTrackingNumber())
+            .scannedNumber(searchRequest.getScannedNumber())
+            .status(searchRequest.getStatus())
+            .orderNumber(searchRequest.getOrderNumber())
+            .lab(searchRequest.getLab())
+            .scanUser(searchRequest.getScanUser())
+            .shipDateFrom(searchRequest.getShipDateFrom())
+            .shipDateTo(searchRequest.getShipDateTo())
+            .scanDateFrom(searchRequest.getScanDateFrom())
+            .scanDateTo(searchRequest.getScanDateTo())
+            .emailReceiveDatetimeFrom(searchRequest.getEmailReceiveDatetimeFrom())
+            .emailReceiveDatetimeTo(searchRequest.getEmailReceiveDatetimeTo())
+            .lastUpdateDatetimeFrom(searchRequest.getLastUpdateDatetimeFrom())
+            .lastUpdateDatetimeTo(searchRequest.getLastUpdateDatetimeTo())
+            .afterRowId(searchRequest.getAfter())
+            .build();
+        CountMode countMode = countMode(searchRequest.getAfter(), searchRequest.getCountMode());
+        ShipmentView view = view(searchRequest.getView());
+        List<Object> cacheKey = SearchResultCache.key(criteria, searchRequest.getPage(), searchRequest.getSize(), countMode, view);
+        InboundShipmentSearchResponse cached = searchResultCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+        long cacheGeneration = searchResultCache.generation();
         
-        // Build response
-        return InboundShipmentSearchResponse.builder()
-            .shipments(page.getContent())
+        Class<?> rowType = rowType(view);
+        InboundShipmentSearchResponse response;
+        if (searchRequest.getAfter() != null) {
+            response = seekPage(criteria, searchRequest.getSize(), rowType);
+        } else if (countMode == CountMode.EXACT) {
+            response = pageResponse(repositoryImpl.search(criteria, pageable, rowType), rowType);
+        } else {
+            response = uncountedOrCappedPage(criteria, pageable, countMode, rowType);
+        }
+        searchResultCache.put(cacheKey, response, cacheGeneration);
+        return response;
+    }
+
+    // Keyset pages never count; everything else defaults to an exact count
+    private static CountMode countMode(Long after, CountMode requested) {
+        if (after != null) {
+            return CountMode.NONE;
+        }
+        return requested == null ? CountMode.EXACT : requested;
+    }
+
+    // Searches return list rows unless the full entities are asked for
+    private static ShipmentView view(ShipmentView requested) {
+        return requested == null ? ShipmentView.LIST : requested;
+    }
+
+    private static Class<?> rowType(ShipmentView view) {
+        return view == ShipmentView.FULL ? InboundShipment.class : ShipmentListRow.class;
+    }
+
+    private InboundShipmentSearchResponse uncountedOrCappedPage(ShipmentSearchCriteria criteria, Pageable pageable, CountMode countMode,
+                                                                Class<?> rowType) {
+        Slice<?> slice = repositoryImpl.searchSlice(criteria, pageable, rowType);
+        if (countMode == CountMode.NONE) {
+            return sliceResponse(slice, rowType, InboundShipmentSearchResponse.UNCOUNTED, false, countMode);
+        }
+        // The rows seen so far are a floor for the total; when the slice has no next page they are the total
+        long seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            return sliceResponse(slice, rowType, seen, false, countMode);
+        }
+        long cap = countMode == CountMode.ESTIMATED
+            ? ESTIMATED_COUNT_THRESHOLD
+            : pageable.getOffset() + (long) COUNT_WINDOW_PAGES * pageable.getPageSize() + 1;
+        long counted = repositoryImpl.countAtMost(criteria, cap);
+        long floor = slice.hasNext() ? seen + 1 : seen;
+        return sliceResponse(slice, rowType, Math.max(counted, floor), counted >= cap, countMode);
+    }
+
+    private static InboundShipmentSearchResponse sliceResponse(Slice<?> slice, Class<?> rowType, long total, boolean capped,
+                                                               CountMode countMode) {
+        int totalPages = total == InboundShipmentSearchResponse.UNCOUNTED
+            ? InboundShipmentSearchResponse.UNCOUNTED
+            : (int) ((total + slice.getSize() - 1) / slice.getSize());
+        return responseWith(slice.getContent(), rowType)
+            .totalElements(total)
+            .totalPages(totalPages)
+            .currentPage(slice.getNumber())
+            .pageSize(slice.getSize())
+            .hasNext(slice.hasNext())
+            .hasPrevious(slice.hasPrevious())
+            .nextCursor(nextCursor(slice.getContent(), slice.hasNext()))
+            .countMode(countMode)
+            .totalCapped(capped)
+            .build();
+    }
+
+    private static InboundShipmentSearchResponse pageResponse(Page<?> page, Class<?> rowType) {
+        return responseWith(page.getContent(), rowType)
             .totalElements(page.getTotalElements())
             .totalPages(page.getTotalPages())
             .currentPage(page.getNumber())
             .pageSize(page.getSize())
             .hasNext(page.hasNext())
             .hasPrevious(page.hasPrevious())
+            .nextCursor(nextCursor(page.getContent(), page.hasNext()))
+            .countMode(CountMode.EXACT)
+            .build();
+    }
+
+    // Reads one row past the page to learn whether another page exists without counting
+    private InboundShipmentSearchResponse seekPage(ShipmentSearchCriteria criteria, int size, Class<?> rowType) {
+        List<?> rows = repositoryImpl.seek(criteria, size + 1, rowType);
+        boolean hasNext = rows.size() > size;
+        List<?> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        return responseWith(content, rowType)
+            .totalElements(InboundShipmentSearchResponse.UNCOUNTED)
+            .totalPages(InboundShipmentSearchResponse.UNCOUNTED)
+            .currentPage(0)
+            .pageSize(size)
+            .hasNext(hasNext)
+            .hasPrevious(true)
+            .nextCursor(nextCursor(content, hasNext))
+            .countMode(CountMode.NONE)
             .build();
     }
+
+    // Content goes to "rows" or "shipments" depending on the row type it was read as
+    @SuppressWarnings("unchecked")
+    private static InboundShipmentSearchResponse.InboundShipmentSearchResponseBuilder responseWith(List<?> content, Class<?> rowType) {
+        InboundShipmentSearchResponse.InboundShipmentSearchResponseBuilder builder = InboundShipmentSearchResponse.builder();
+        return rowType == ShipmentListRow.class
+            ? builder.rows((List<ShipmentListRow>) content)
+            : builder.shipments((List<InboundShipment>) content);
+    }
+
+    private static Long nextCursor(List<?> content, boolean hasNext) {
+        return hasNext && !content.isEmpty() ? rowId(content.get(content.size() - 1)) : null;
+    }
+
+    private static Long rowId(Object row) {
+        return row instanceof ShipmentListRow listRow ? listRow.getRowId() : ((InboundShipment) row).getRowId();
+    }
+
+    private static int resultCount(InboundShipmentSearchResponse response) {
+        return response.getRows() != null ? response.getRows().size() : response.getShipments().size();
+    }
     
     @Override
     public InboundShipmentSearchResponse searchShipmentsV2(InboundShipmentSearchRequestV2 searchRequest) {
@@ -274,11 +633,69 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
         log.debug("  - lastUpdateDatetimeTo: {}", searchRequest.getLastUpdateDatetimeTo());
         log.debug("  - page: {}", searchRequest.getPage());
         log.debug("  - size: {}", searchRequest.getSize());
+        log.debug("  - after: {}", searchRequest.getAfter());
+        log.debug("  - countMode: {}", searchRequest.getCountMode());
+        log.debug("  - view: {}", searchRequest.getView());
+        
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+            .trackingNumber(searchRequest.getTrackingNumber())
+            .scannedNumber(searchRequest.getScannedNumber())
+            .status(searchRequest.getStatus())
+            .orderNumber(searchRequest.getOrderNumber())
+            .lab(searchRequest.getLab())
+            .scanUser(searchRequest.getScanUser())
+            .clientName(searchRequest.getClientName())
+            .shipDateFrom(searchRequest.getShipDateFrom())
+            .shipDateTo(searchRequest.getShipDateTo())
+            .scanDateFrom(searchRequest.getScanDateFrom())
+            .scanDateTo(searchRequest.getScanDateTo())
+            .emailReceiveDatetimeFrom(searchRequest.getEmailReceiveDatetimeFrom())
+            .emailReceiveDatetimeTo(searchRequest.getEmailReceiveDatetimeTo())
+            .lastUpdateDatetimeFrom(searchRequest.getLastUpdateDatetimeFrom())
+            .lastUpdateDatetimeTo(searchRequest.getLastUpdateDatetimeTo())
+            .afterRowId(searchRequest.getAfter())
+            .build();
+        CountMode countMode = countMode(searchRequest.getAfter(), searchRequest.getCountMode());
+        ShipmentView view = view(searchRequest.getView());
+        List<Object> cacheKey = SearchResultCache.key(criteria, searchRequest.getPage(), searchRequest.getSize(), countMode, view);
+        InboundShipmentSearchResponse cached = searchResultCache.get(cacheKey);
+        if (cached != null) {
+            log.debug("Served from search cache: {} results", resultCount(cached));
+            log.debug("=== V2 Search Completed ===");
+            return cached;
+        }
+        long cacheGeneration = searchResultCache.generation();
+        
+        Class<?> rowType = rowType(view);
+        if (searchRequest.getAfter() != null) {
+            InboundShipmentSearchResponse response = seekPage(criteria, searchRequest.getSize(), rowType);
+            searchResultCache.put(cacheKey, response, cacheGeneration);
+            log.debug("Keyset page returned {} results, next cursor: {}", resultCount(response), response.getNextCursor());
+            log.debug("=== V2 Search Completed ===");
+            return response;
+        }
         
         // Create pageable object
         Pageable pageable = PageRequest.of(searchRequest.getPage(), searchRequest.getSize());
         log.debug("Created Pageable: page={}, size={}", searchRequest.getPage(), searchRequest.getSize());
         
+        if (countMode != CountMode.EXACT) {
+            InboundShipmentSearchResponse response = uncountedOrCappedPage(criteria, pageable, countMode, rowType);
+            searchResultCache.put(cacheKey, response, cacheGeneration);
+            log.debug("Count mode {} returned {} results, total elements: {} (capped: {})",
+                     countMode, resultCount(response), response.getTotalElements(), response.isTotalCapped());
+            log.debug("=== V2 Search Completed ===");
+            return response;
+        }
+        
+        if (view == ShipmentView.LIST) {
+            InboundShipmentSearchResponse response = pageResponse(repositoryImpl.search(criteria, pageable, rowType), rowType);
+            searchResultCache.put(cacheKey, response, cacheGeneration);
+            log.debug("List rows returned: {} results, total elements: {}", resultCount(response), response.getTotalElements());
+            log.debug("=== V2 Search Completed ===");
+            return response;
+        }
+        
         log.debug("Calling repositoryImpl.searchShipmentsV2WithLogging()...");
         // Call repository V2 search method with logging
         Page<InboundShipment> page = repositoryImpl.searchShipmentsV2WithLogging(
@@ -304,35 +721,45 @@ public class InboundShipmentServiceImpl implements InboundShipmentService {
                  page.getContent().size(), page.getTotalElements(), page.getTotalPages());
         
         // Build response
-        InboundShipmentSearchResponse response = InboundShipmentSearchResponse.builder()
-            .shipments(page.getContent())
-            .totalElements(page.getTotalElements())
-            .totalPages(page.getTotalPages())
-            .currentPage(page.getNumber())
-            .pageSize(page.getSize())
-            .hasNext(page.hasNext())
-            .hasPrevious(page.hasPrevious())
-            .build();
+        InboundShipmentSearchResponse response = pageResponse(page, rowType);
+        searchResultCache.put(cacheKey, response, cacheGeneration);
             
         log.debug("=== V2 Search Completed ===");
         return response;
     }
     
     @Override
-    @Cacheable(value = "scanUsers", key = "'all'")
     public List<String> getDistinctScanUsers() {
-        return repository.findDistinctScanUsers();
+        return distinctValues.scanUsers();
     }
 
     @Override
-    @Cacheable(value = "statuses", key = "'all'")
     public List<String> getDistinctStatuses() {
-        return repository.findDistinctStatuses();
+        return distinctValues.statuses();
     }
     
-    @CacheEvict(value = {"scanUsers", "statuses"}, allEntries = true)
+    @Override
+    public SearchCacheStats getSearchCacheStats() {
+        return searchResultCache.stats();
+    }
+    
+    @Override
     public void evictDistinctListsCache() {
-        // This method will clear the cache for both scan users and statuses
-        // The @CacheEvict annotation handles the actual cache clearing
+        // The sets are kept current by every write; this also drops values no row uses any more
+        distinctValues.rebuild();
+    }
+
+    // Keeps in-memory lookup structures in step with what was actually committed
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.clevelanddx.packageintake.service;
+
+import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse.CountMode;
+import com.clevelanddx.packageintake.dto.SearchCacheStats;
+import com.clevelanddx.packageintake.dto.ShipmentView;
+import com.clevelanddx.packageintake.repository.ShipmentSearchCriteria;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Short-lived cache of search responses for dashboards that poll the same filter sets.
+// Keyed on the canonical search (V1 and V2 requests with the same filters share entries), bounded
+// by entry count and ttl, and dropped entirely whenever a shipment write commits in this service.
+// Rows written by other applications show up once the ttl has passed.
+@Component
+public class SearchResultCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private final Map<List<Object>, CachedResponse> entries;
+    // Bumped by every invalidation; a search that raced with a commit must not store its result
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCache(@Value("${packageintake.search-cache.ttl-ms:15000}") long ttlMillis,
+                             @Value("${packageintake.search-cache.max-entries:100}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedResponse> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    // String filters compare case-insensitively in SQL Server, so case is folded out of the key.
+    // Blank and null stay distinct: a blank filter still excludes rows where the column is NULL.
+    public static List<Object> key(ShipmentSearchCriteria criteria, int page, int size, CountMode countMode, ShipmentView view) {
+        return Arrays.asList(
+                fold(criteria.getTrackingNumber()),
+                fold(criteria.getScannedNumber()),
+                fold(criteria.getStatus()),
+                fold(criteria.getOrderNumber()),
+                fold(criteria.getLab()),
+                fold(criteria.getScanUser()),
+                fold(criteria.getClientName()),
+                criteria.getShipDateFrom(),
+                criteria.getShipDateTo(),
+                criteria.getScanDateFrom(),
+                criteria.getScanDateTo(),
+                criteria.getEmailReceiveDatetimeFrom(),
+                criteria.getEmailReceiveDatetimeTo(),
+                criteria.getLastUpdateDatetimeFrom(),
+                criteria.getLastUpdateDatetimeTo(),
+                criteria.getAfterRowId(),
+                // A keyset page does not depend on the page number
+                criteria.getAfterRowId() == null ? page : 0,
+                size,
+                countMode,
+                view);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public InboundShipmentSearchResponse get(List<Object> key) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return cached.response;
+                }
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(List<Object> key, InboundShipmentSearchResponse response, long generationAtLookup) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation.get() == generationAtLookup) {
+                entries.put(key, new CachedResponse(response, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public SearchCacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new SearchCacheStats(hits.get(), misses.get(), invalidations.get(), size, maxEntries, ttlMillis);
+    }
+
+    private static Object fold(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static final class CachedResponse {
+        private final InboundShipmentSearchResponse response;
+        private final long expiresAt;
+
+        private CachedResponse(InboundShipmentSearchResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.clevelanddx.packageintake.service;
+
+import com.clevelanddx.packageintake.dto.ClientDTO;
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.model.InboundShipmentReference;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecodeResult;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecoderPipeline;
+import com.clevelanddx.packageintake.service.index.DistinctShipmentValues;
+import com.clevelanddx.packageintake.service.index.ScanNegativeCache;
+import com.clevelanddx.packageintake.service.index.TrackingNumberIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Last step before the application reports ready. Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC
+// only after every ApplicationReadyEvent listener has returned, so everything done here is finished
+// before /actuator/health/readiness turns UP. Fills the in-memory caches, runs each hot scan statement
+// once so Hibernate and SQL Server have compiled it, then drives the in-memory lookup and JSON paths
+// until the JIT has compiled them. Read-only throughout: no scan is stamped and no miss is recorded.
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // Never stored; used where a statement needs a value that matches nothing
+    static final String SENTINEL = "WARMUP-0000000000";
+    // Carrier layouts the decoders recognise, so every decoder is exercised even on an empty table
+    private static final List<String> SAMPLE_SCANS = List.of(
+            "1Z999AA10123456784", "]C14204411396129400111899223344556677", "9600000123456789012343",
+            "00001234567890123452", "420441139612TRACK123");
+    private static final int SAMPLE_SHIPMENTS = 20;
+
+    private final ClientCacheService clientCacheService;
+    private final InboundShipmentReferenceService referenceService;
+    private final DistinctShipmentValues distinctValues;
+    private final TrackingNumberIndex trackingNumberIndex;
+    private final ScanNegativeCache scanNegativeCache;
+    private final BarcodeDecoderPipeline barcodeDecoderPipeline;
+    private final InboundShipmentRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int iterations;
+
+    @Autowired
+    public StartupWarmup(ClientCacheService clientCacheService, InboundShipmentReferenceService referenceService,
+                         DistinctShipmentValues distinctValues, TrackingNumberIndex trackingNumberIndex,
+                         ScanNegativeCache scanNegativeCache, BarcodeDecoderPipeline barcodeDecoderPipeline,
+                         InboundShipmentRepository repository, ObjectMapper objectMapper,
+                         @Value("${packageintake.warmup.enabled:true}") boolean enabled,
+                         @Value("${packageintake.warmup.iterations:10000}") int iterations) {
+        this.clientCacheService = clientCacheService;
+        this.referenceService = referenceService;
+        this.distinctValues = distinctValues;
+        this.trackingNumberIndex = trackingNumberIndex;
+        this.scanNegativeCache = scanNegativeCache;
+        this.barcodeDecoderPipeline = barcodeDecoderPipeline;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.iterations = iterations;
+    }
+
+    // After the index loaders, which run at HIGHEST_PRECEDENCE on the same event
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            log.info("Startup warm-up disabled");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long preload = timed("preload caches", this::preloadCaches);
+        List<InboundShipment> samples = new ArrayList<>();
+        long statements = timed("prepare statements", () -> samples.addAll(prepareStatements()));
+        long synthetic = timed("synthetic iterations", () -> runIterations(samples, iterations));
+        log.info("Startup warm-up finished in {} ms (caches {} ms, statements {} ms, {} iterations {} ms)",
+                System.currentTimeMillis() - start, preload, statements, iterations, synthetic);
+    }
+
+    void preloadCaches() {
+        if (!trackingNumberIndex.isReady()) {
+            trackingNumberIndex.load();
+        }
+        if (!distinctValues.isReady()) {
+            distinctValues.load();
+        }
+        clientCacheService.getAllClients();
+        referenceService.getAllReferences();
+    }
+
+    // Statements the scan path runs on every request, executed once with values that match nothing.
+    // The tracking-in-scanned substring fallbacks are left out: they read the whole table whatever the
+    // parameter. Returns recent shipments to use as realistic samples.
+    List<InboundShipment> prepareStatements() {
+        repository.findById(-1L);
+        repository.findAllById(List.of(-1L));
+        repository.findByScannedNumber(SENTINEL);
+        repository.findFirstByScannedNumberOrTrackingNumberIn(SENTINEL, List.of(SENTINEL));
+        repository.findAllByScannedNumberOrTrackingNumberIn(SENTINEL, List.of(SENTINEL));
+        repository.findScanMatches("[]");
+        return repository.findRecentShipments(SAMPLE_SHIPMENTS);
+    }
+
+    void runIterations(List<InboundShipment> samples, int count) {
+        List<String> scans = new ArrayList<>(SAMPLE_SCANS);
+        for (InboundShipment sample : samples) {
+            if (sample.getScannedNumber() != null) {
+                scans.add(sample.getScannedNumber());
+            }
+            if (sample.getTrackingNumber() != null) {
+                scans.add(sample.getTrackingNumber());
+            }
+        }
+        List<InboundShipmentReference> references = referenceService.getAllReferences();
+        List<String> clientPrefixes = new ArrayList<>();
+        for (ClientDTO client : clientCacheService.getAllClients()) {
+            if (client.getClient() != null && client.getClient().length() >= 3 && clientPrefixes.size() < 20) {
+                clientPrefixes.add(client.getClient().substring(0, 3));
+            }
+        }
+        if (clientPrefixes.isEmpty()) {
+            clientPrefixes.add("cli");
+        }
+
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            String scanned = scans.get(i % scans.size());
+            BarcodeDecodeResult decoded = barcodeDecoderPipeline.decode(scanned);
+            sink += scanNegativeCache.isKnownMiss(scanned, decoded.getTrackingNumbers()) ? 1 : 0;
+            sink += decoded.isDecoded()
+                    ? trackingNumberIndex.findRowIdsByTrackingNumbers(decoded.getTrackingNumbers()).size()
+                    : trackingNumberIndex.findRowIds(scanned).size();
+            sink += clientCacheService.search(clientPrefixes.get(i % clientPrefixes.size()), 10).size();
+            if (!references.isEmpty()) {
+                InboundShipmentReference reference = references.get(i % references.size());
+                sink += referenceService.getReferencesByType(reference.getType()).size();
+            }
+            try {
+                sink += objectMapper.writeValueAsBytes(samples.isEmpty() ? SAMPLE_SCANS : samples).length;
+            } catch (Exception e) {
+                log.warn("Startup warm-up could not serialize sample shipments", e);
+                break;
+            }
+        }
+        log.debug("Startup warm-up iterations done ({})", sink);
+    }
+
+    // A failing phase is logged and skipped; it must not keep the application from starting
+    private static long timed(String phase, Runnable action) {
+        long start = System.currentTimeMillis();
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Startup warm-up phase '{}' failed, continuing", phase, e);
+        }
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,62 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import java.util.List;
+
+public final class BarcodeDecodeResult {
+
+    public enum Status {
+        DECODED,
+        MALFORMED,
+        UNRECOGNIZED
+    }
+
+    private static final BarcodeDecodeResult UNRECOGNIZED = new BarcodeDecodeResult(Status.UNRECOGNIZED, null, List.of());
+
+    private final Status status;
+    private final String carrier;
+    private final List<String> trackingNumbers;
+
+    private BarcodeDecodeResult(Status status, String carrier, List<String> trackingNumbers) {
+        this.status = status;
+        this.carrier = carrier;
+        this.trackingNumbers = trackingNumbers;
+    }
+
+    public static BarcodeDecodeResult decoded(String carrier, List<String> trackingNumbers) {
+        return new BarcodeDecodeResult(Status.DECODED, carrier, List.copyOf(trackingNumbers));
+    }
+
+    // The barcode follows a known carrier layout but fails its check digit
+    public static BarcodeDecodeResult malformed(String carrier) {
+        return new BarcodeDecodeResult(Status.MALFORMED, carrier, List.of());
+    }
+
+    public static BarcodeDecodeResult unrecognized() {
+        return UNRECOGNIZED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getCarrier() {
+        return carrier;
+    }
+
+    public List<String> getTrackingNumbers() {
+        return trackingNumbers;
+    }
+
+    public boolean isDecoded() {
+        return status == Status.DECODED;
+    }
+
+    public boolean isMalformed() {
+        return status == Status.MALFORMED;
+    }
+
+    @Override
+    public String toString() {
+        return status + (carrier != null ? "(" + carrier + ")" : "") + trackingNumbers;
+    }
+}
@@ -0,0 +1,12 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import java.util.Optional;
+
+// A carrier label layout that can pull tracking numbers out of a raw scan.
+// Implementations are Spring beans, so adding a carrier means adding a decoder class.
+public interface BarcodeDecoder {
+
+    // Empty when the barcode does not use this layout. The barcode is already upper-cased and
+    // stripped of whitespace, GS1 symbology identifiers and FNC1 separators.
+    Optional<BarcodeDecodeResult> decode(String barcode);
+}
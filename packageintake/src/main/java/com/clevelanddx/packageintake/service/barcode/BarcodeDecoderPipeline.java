@@ -0,0 +1,63 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Runs every registered decoder over a scan. The first decoder that extracts a valid tracking
+// number wins; a scan is only malformed when some layout matched and none decoded it.
+@Component
+public class BarcodeDecoderPipeline {
+
+    private static final char GS1_GROUP_SEPARATOR = '\u001D';
+
+    private final List<BarcodeDecoder> decoders;
+
+    @Autowired
+    public BarcodeDecoderPipeline(List<BarcodeDecoder> decoders) {
+        this.decoders = List.copyOf(decoders);
+    }
+
+    public BarcodeDecodeResult decode(String scannedNumber) {
+        String barcode = normalize(scannedNumber);
+        if (barcode.isEmpty()) {
+            return BarcodeDecodeResult.unrecognized();
+        }
+        BarcodeDecodeResult malformed = null;
+        for (BarcodeDecoder decoder : decoders) {
+            Optional<BarcodeDecodeResult> result = decoder.decode(barcode);
+            if (result.isEmpty()) {
+                continue;
+            }
+            if (result.get().isDecoded()) {
+                return result.get();
+            }
+            if (malformed == null && result.get().isMalformed()) {
+                malformed = result.get();
+            }
+        }
+        return malformed != null ? malformed : BarcodeDecodeResult.unrecognized();
+    }
+
+    static String normalize(String scannedNumber) {
+        if (scannedNumber == null) {
+            return "";
+        }
+        String value = scannedNumber.trim();
+        // Scanners configured to transmit AIM symbology identifiers prefix GS1-128 data with ]C1
+        if (value.length() >= 3 && value.charAt(0) == ']') {
+            value = value.substring(3);
+        }
+        StringBuilder barcode = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != GS1_GROUP_SEPARATOR && !Character.isWhitespace(c)) {
+                barcode.append(c);
+            }
+        }
+        return barcode.toString().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+final class CheckDigits {
+
+    private CheckDigits() {
+    }
+
+    static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // GS1 / USPS IMpb modulo 10: weights 3,1,3,... from the digit left of the check digit
+    static boolean isValidMod10(String digits) {
+        if (digits.length() < 2 || !isDigits(digits)) {
+            return false;
+        }
+        int sum = 0;
+        int weight = 3;
+        for (int i = digits.length() - 2; i >= 0; i--) {
+            sum += (digits.charAt(i) - '0') * weight;
+            weight = weight == 3 ? 1 : 3;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    // FedEx Express 12 digit: weights 1,3,7,... from the digit left of the check digit, modulo 11
+    static boolean isValidFedExExpress(String digits) {
+        if (digits.length() != 12 || !isDigits(digits)) {
+            return false;
+        }
+        int[] weights = {1, 3, 7};
+        int sum = 0;
+        for (int i = 10, w = 0; i >= 0; i--, w++) {
+            sum += (digits.charAt(i) - '0') * weights[w % 3];
+        }
+        return sum % 11 % 10 == digits.charAt(11) - '0';
+    }
+
+    // UPS 1Z: letters map to (ordinal + 2) mod 10, odd positions weight 1, even positions weight 2
+    static boolean isValidUps(String trackingNumber) {
+        if (trackingNumber.length() != 18 || !trackingNumber.startsWith("1Z")) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 2; i < 17; i++) {
+            char c = trackingNumber.charAt(i);
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                value = (c - 'A' + 2) % 10;
+            } else {
+                return false;
+            }
+            sum += (i - 2) % 2 == 0 ? value : value * 2;
+        }
+        char check = trackingNumber.charAt(17);
+        return check >= '0' && check <= '9' && (10 - sum % 10) % 10 == check - '0';
+    }
+}
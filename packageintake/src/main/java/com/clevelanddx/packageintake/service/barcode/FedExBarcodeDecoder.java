@@ -0,0 +1,56 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// FedEx Express (12 digit) and Ground (15 digit) tracking numbers at the end of the 22 digit Ground
+// "96" barcode and the 34 digit Express barcode. A bare 12 or 15 digit number is left to the substring
+// lookup, which also matches it exactly, since any digit string passes the mod check one time in ten.
+// FedEx numbers are plain digits, so a failed check digit is left to the other decoders rather than
+// reported as malformed.
+@Component
+@Order(30)
+public class FedExBarcodeDecoder implements BarcodeDecoder {
+
+    static final String CARRIER = "FedEx";
+
+    @Override
+    public Optional<BarcodeDecodeResult> decode(String barcode) {
+        if (!CheckDigits.isDigits(barcode)) {
+            return Optional.empty();
+        }
+        List<String> trackingNumbers = new ArrayList<>();
+        switch (barcode.length()) {
+            case 22 -> {
+                if (barcode.startsWith("96")) {
+                    addIfGround(trackingNumbers, barcode.substring(7));
+                }
+            }
+            case 34 -> {
+                addIfExpress(trackingNumbers, barcode.substring(22));
+                addIfGround(trackingNumbers, barcode.substring(19));
+            }
+            default -> {
+            }
+        }
+        return trackingNumbers.isEmpty()
+                ? Optional.empty()
+                : Optional.of(BarcodeDecodeResult.decoded(CARRIER, trackingNumbers));
+    }
+
+    private static void addIfExpress(List<String> trackingNumbers, String candidate) {
+        if (CheckDigits.isValidFedExExpress(candidate)) {
+            trackingNumbers.add(candidate);
+        }
+    }
+
+    private static void addIfGround(List<String> trackingNumbers, String candidate) {
+        if (CheckDigits.isValidMod10(candidate)) {
+            trackingNumbers.add(candidate);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+// GS1-128 shipping labels keyed by AI (00): an 18 digit SSCC with a modulo 10 check digit. Only a payload
+// of exactly AI + SSCC is decoded, so other long digit strings that happen to start with 00 are not rejected
+@Component
+@Order(40)
+public class Gs1BarcodeDecoder implements BarcodeDecoder {
+
+    static final String CARRIER = "GS1";
+    private static final String SSCC_AI = "00";
+    private static final int SSCC_LENGTH = 18;
+
+    @Override
+    public Optional<BarcodeDecodeResult> decode(String barcode) {
+        int end = SSCC_AI.length() + SSCC_LENGTH;
+        if (!barcode.startsWith(SSCC_AI) || barcode.length() != end) {
+            return Optional.empty();
+        }
+        String sscc = barcode.substring(SSCC_AI.length());
+        if (!CheckDigits.isDigits(sscc)) {
+            return Optional.empty();
+        }
+        // Shippers record SSCCs both with and without the application identifier
+        return Optional.of(CheckDigits.isValidMod10(sscc)
+                ? BarcodeDecodeResult.decoded(CARRIER, List.of(sscc, SSCC_AI + sscc))
+                : BarcodeDecodeResult.malformed(CARRIER));
+    }
+}
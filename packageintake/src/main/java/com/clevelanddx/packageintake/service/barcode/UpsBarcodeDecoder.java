@@ -0,0 +1,28 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// UPS labels carry the 1Z tracking number as-is. Only a payload that is exactly a 1Z number is decoded;
+// one embedded in longer data is left to the substring lookup, so its check digit cannot reject the scan
+@Component
+@Order(10)
+public class UpsBarcodeDecoder implements BarcodeDecoder {
+
+    static final String CARRIER = "UPS";
+    private static final Pattern TRACKING_NUMBER = Pattern.compile("1Z[0-9A-Z]{16}");
+
+    @Override
+    public Optional<BarcodeDecodeResult> decode(String barcode) {
+        if (!TRACKING_NUMBER.matcher(barcode).matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(CheckDigits.isValidUps(barcode)
+                ? BarcodeDecodeResult.decoded(CARRIER, List.of(barcode))
+                : BarcodeDecodeResult.malformed(CARRIER));
+    }
+}
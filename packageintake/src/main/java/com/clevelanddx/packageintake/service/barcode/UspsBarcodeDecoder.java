@@ -0,0 +1,59 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// USPS Intelligent Mail package barcodes: optional "420" + ZIP or ZIP+4 routing prefix,
+// then a 20-34 digit tracking number starting with 9 and ending in a modulo 10 check digit
+@Component
+@Order(20)
+public class UspsBarcodeDecoder implements BarcodeDecoder {
+
+    static final String CARRIER = "USPS";
+    private static final String ROUTING_PREFIX = "420";
+    private static final int[] ZIP_LENGTHS = {5, 9};
+
+    @Override
+    public Optional<BarcodeDecodeResult> decode(String barcode) {
+        if (!CheckDigits.isDigits(barcode)) {
+            return Optional.empty();
+        }
+        if (barcode.startsWith(ROUTING_PREFIX)) {
+            // ZIP and ZIP+4 prefixes cannot be told apart up front, so keep every reading that validates
+            boolean layoutMatched = false;
+            List<String> trackingNumbers = new ArrayList<>();
+            for (int zipLength : ZIP_LENGTHS) {
+                int start = ROUTING_PREFIX.length() + zipLength;
+                if (barcode.length() <= start) {
+                    continue;
+                }
+                String trackingNumber = barcode.substring(start);
+                if (isTrackingLayout(trackingNumber)) {
+                    layoutMatched = true;
+                    if (CheckDigits.isValidMod10(trackingNumber)) {
+                        trackingNumbers.add(trackingNumber);
+                    }
+                }
+            }
+            if (!trackingNumbers.isEmpty()) {
+                return Optional.of(BarcodeDecodeResult.decoded(CARRIER, trackingNumbers));
+            }
+            return layoutMatched ? Optional.of(BarcodeDecodeResult.malformed(CARRIER)) : Optional.empty();
+        }
+        // A bare number that fails the check digit may still belong to another carrier
+        if (isTrackingLayout(barcode) && CheckDigits.isValidMod10(barcode)) {
+            return Optional.of(BarcodeDecodeResult.decoded(CARRIER, List.of(barcode)));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isTrackingLayout(String digits) {
+        int length = digits.length();
+        return (length == 20 || length == 22 || length == 26 || length == 30 || length == 34)
+                && digits.charAt(0) == '9';
+    }
+}
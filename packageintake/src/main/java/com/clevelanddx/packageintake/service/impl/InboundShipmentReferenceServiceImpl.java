@@ -3,8 +3,15 @@ package com.clevelanddx.packageintake.service.impl;
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
 import com.clevelanddx.packageintake.repository.InboundShipmentReferenceRepository;
 import com.clevelanddx.packageintake.service.InboundShipmentReferenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,31 +19,48 @@ import java.util.Optional;
 @Service
 public class InboundShipmentReferenceServiceImpl implements InboundShipmentReferenceService {
 
+    private static final Logger log = LoggerFactory.getLogger(InboundShipmentReferenceServiceImpl.class);
+
     private final InboundShipmentReferenceRepository repository;
+    // find-or-create inserts commit on their own, so losing a race on the (Type, Value) unique index
+    // does not mark the caller's transaction (a shipment update) rollback-only
+    private final TransactionTemplate newTransaction;
+
+    // All reads are served from here. Loaded on first use, replaced on every write through this service
+    // and reloaded on a schedule to pick up rows written by other instances
+    private volatile ReferenceRegistry registry;
 
     @Autowired
-    public InboundShipmentReferenceServiceImpl(InboundShipmentReferenceRepository repository) {
+    public InboundShipmentReferenceServiceImpl(InboundShipmentReferenceRepository repository,
+                                               PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
     public List<InboundShipmentReference> getAllReferences() {
-        return repository.findAll();
+        return registry().all();
     }
 
     @Override
     public List<InboundShipmentReference> getReferencesByType(String type) {
-        return repository.findByType(type);
+        return registry().byType(type);
     }
 
     @Override
     public Optional<InboundShipmentReference> getReferenceById(Long id) {
-        return repository.findById(id);
+        InboundShipmentReference reference = registry().byId(id);
+        if (reference != null) {
+            return Optional.of(reference);
+        }
+        // Possibly written elsewhere since the last reload
+        return id == null ? Optional.empty() : repository.findById(id).map(this::remember);
     }
 
     @Override
     public InboundShipmentReference createReference(InboundShipmentReference reference) {
-        return repository.save(reference);
+        return remember(repository.save(reference));
     }
 
     @Override
@@ -45,7 +69,7 @@ public class InboundShipmentReferenceServiceImpl implements InboundShipmentRefer
             throw new jakarta.persistence.EntityNotFoundException("Reference not found with id: " + id);
         }
         reference.setRowId(id);
-        return repository.save(reference);
+        return remember(repository.save(reference));
     }
 
     @Override
@@ -54,28 +78,78 @@ public class InboundShipmentReferenceServiceImpl implements InboundShipmentRefer
             throw new jakarta.persistence.EntityNotFoundException("Reference not found with id: " + id);
         }
         repository.deleteById(id);
+        forget(id);
     }
 
     @Override
     public InboundShipmentReference findOrCreateReference(String type, String value, String description) {
         // First try to find by type and value
-        Optional<InboundShipmentReference> existingReference = repository.findByTypeAndValue(type, value);
-        if (existingReference.isPresent()) {
-            return existingReference.get();
+        InboundShipmentReference existingReference = registry().find(type, value);
+        if (existingReference != null) {
+            return existingReference;
         }
-        
+        Optional<InboundShipmentReference> storedReference = repository.findByTypeAndValue(type, value);
+        if (storedReference.isPresent()) {
+            return remember(storedReference.get());
+        }
+
         // If not found, create a new one
         InboundShipmentReference newReference = InboundShipmentReference.builder()
                 .type(type)
                 .value(value)
                 .description(description != null ? description : "")
                 .build();
-        
-        return repository.save(newReference);
+
+        try {
+            return remember(newTransaction.execute(status -> repository.save(newReference)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent caller inserted the same (Type, Value) first; use its row
+            return repository.findByTypeAndValue(type, value)
+                    .map(this::remember)
+                    .orElseThrow(() -> e);
+        }
     }
 
     @Override
     public Optional<InboundShipmentReference> findByTypeAndValue(String type, String value) {
-        return repository.findByTypeAndValue(type, value);
+        InboundShipmentReference reference = registry().find(type, value);
+        if (reference != null) {
+            return Optional.of(reference);
+        }
+        return repository.findByTypeAndValue(type, value).map(this::remember);
+    }
+
+    @Scheduled(fixedDelayString = "${packageintake.reference-registry.refresh-interval-ms:300000}",
+               initialDelayString = "${packageintake.reference-registry.refresh-interval-ms:300000}")
+    public synchronized void reload() {
+        try {
+            registry = ReferenceRegistry.of(repository.findAll());
+        } catch (Exception e) {
+            log.warn("Reference registry reload failed, keeping the previous snapshot", e);
+        }
+    }
+
+    private ReferenceRegistry registry() {
+        ReferenceRegistry current = registry;
+        if (current == null) {
+            synchronized (this) {
+                current = registry;
+                if (current == null) {
+                    current = ReferenceRegistry.of(repository.findAll());
+                    registry = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Writers are serialized so two deltas never start from the same snapshot and lose one another
+    private synchronized InboundShipmentReference remember(InboundShipmentReference reference) {
+        registry = registry().with(reference);
+        return reference;
+    }
+
+    private synchronized void forget(Long id) {
+        registry = registry().without(id);
     }
 }
@@ -0,0 +1,139 @@
+package com.clevelanddx.packageintake.service.impl;
+
+import com.clevelanddx.packageintake.model.InboundShipmentReference;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Immutable snapshot of Inbound_Shipments_Reference. Writers derive a new registry with with/without
+// and publish it through a volatile field, so readers never lock. The (type, value) index is nested
+// per type rather than keyed by a pair object, and matches case-insensitively like the column
+// collation and the unique index do. The registry holds its own detached copies of the entities and
+// every read returns fresh copies, so a caller changing a result (or a session it gets attached to)
+// never changes what other threads read.
+public final class ReferenceRegistry {
+
+    static final ReferenceRegistry EMPTY = new ReferenceRegistry(List.of());
+
+    private final List<InboundShipmentReference> all;
+    private final Map<Long, InboundShipmentReference> byId;
+    private final Map<String, List<InboundShipmentReference>> byType;
+    private final Map<String, Map<String, InboundShipmentReference>> byTypeAndValue;
+
+    private ReferenceRegistry(Collection<InboundShipmentReference> references) {
+        List<InboundShipmentReference> sorted = new ArrayList<>(references.size());
+        for (InboundShipmentReference reference : references) {
+            if (reference.getRowId() != null) {
+                sorted.add(reference);
+            }
+        }
+        sorted.sort(Comparator.comparing(InboundShipmentReference::getRowId));
+
+        Map<Long, InboundShipmentReference> ids = new HashMap<>();
+        Map<String, List<InboundShipmentReference>> types = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, Map<String, InboundShipmentReference>> typeValues = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (InboundShipmentReference reference : sorted) {
+            ids.put(reference.getRowId(), reference);
+            if (reference.getType() == null || reference.getValue() == null) {
+                continue;
+            }
+            types.computeIfAbsent(reference.getType(), type -> new ArrayList<>()).add(reference);
+            // Lowest Row_ID wins, as in the V14 duplicate fold
+            typeValues.computeIfAbsent(reference.getType(), type -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER))
+                    .putIfAbsent(reference.getValue(), reference);
+        }
+        types.replaceAll((type, list) -> Collections.unmodifiableList(list));
+        typeValues.replaceAll((type, values) -> Collections.unmodifiableMap(values));
+
+        this.all = Collections.unmodifiableList(sorted);
+        this.byId = Collections.unmodifiableMap(ids);
+        this.byType = Collections.unmodifiableMap(types);
+        this.byTypeAndValue = Collections.unmodifiableMap(typeValues);
+    }
+
+    public static ReferenceRegistry of(Collection<InboundShipmentReference> references) {
+        List<InboundShipmentReference> copies = new ArrayList<>(references.size());
+        for (InboundShipmentReference reference : references) {
+            copies.add(copy(reference));
+        }
+        return new ReferenceRegistry(copies);
+    }
+
+    public List<InboundShipmentReference> all() {
+        return copies(all);
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    public InboundShipmentReference byId(Long id) {
+        return id == null ? null : copy(byId.get(id));
+    }
+
+    public List<InboundShipmentReference> byType(String type) {
+        if (type == null) {
+            return List.of();
+        }
+        return copies(byType.getOrDefault(type, List.of()));
+    }
+
+    public InboundShipmentReference find(String type, String value) {
+        if (type == null || value == null) {
+            return null;
+        }
+        Map<String, InboundShipmentReference> values = byTypeAndValue.get(type);
+        return values == null ? null : copy(values.get(value));
+    }
+
+    // Copy with reference added, or replacing the entry with the same Row_ID
+    public ReferenceRegistry with(InboundShipmentReference reference) {
+        List<InboundShipmentReference> references = new ArrayList<>(all.size() + 1);
+        for (InboundShipmentReference existing : all) {
+            if (!existing.getRowId().equals(reference.getRowId())) {
+                references.add(existing);
+            }
+        }
+        references.add(copy(reference));
+        return new ReferenceRegistry(references);
+    }
+
+    public ReferenceRegistry without(Long id) {
+        if (!byId.containsKey(id)) {
+            return this;
+        }
+        List<InboundShipmentReference> references = new ArrayList<>(all.size());
+        for (InboundShipmentReference existing : all) {
+            if (!existing.getRowId().equals(id)) {
+                references.add(existing);
+            }
+        }
+        return new ReferenceRegistry(references);
+    }
+
+    private static List<InboundShipmentReference> copies(List<InboundShipmentReference> references) {
+        List<InboundShipmentReference> copies = new ArrayList<>(references.size());
+        for (InboundShipmentReference reference : references) {
+            copies.add(copy(reference));
+        }
+        return copies;
+    }
+
+    private static InboundShipmentReference copy(InboundShipmentReference reference) {
+        if (reference == null) {
+            return null;
+        }
+        return InboundShipmentReference.builder()
+                .rowId(reference.getRowId())
+                .type(reference.getType())
+                .value(reference.getValue())
+                .description(reference.getDescription())
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.clevelanddx.packageintake.service.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable substring index over client names for the autocomplete endpoints. Names are case-folded
+// once; terms of a trigram or longer are narrowed by intersecting the postings of their trigrams and
+// then verified, shorter terms scan the folded names directly. Results are positions into the list the
+// index was built from, best match first: whole name, then name prefix, then word prefix, then any
+// other occurrence (earlier first), ties kept in list order.
+public final class ClientNameIndex {
+
+    static final int GRAM_LENGTH = 3;
+    private static final int[] NONE = new int[0];
+
+    private final String[] folded;
+    private final Map<String, int[]> postings;
+
+    private ClientNameIndex(String[] folded, Map<String, int[]> postings) {
+        this.folded = folded;
+        this.postings = postings;
+    }
+
+    public static ClientNameIndex build(List<String> names) {
+        String[] folded = new String[names.size()];
+        Map<String, List<Integer>> grams = new HashMap<>();
+        for (int position = 0; position < folded.length; position++) {
+            String name = names.get(position);
+            folded[position] = name == null ? "" : fold(name);
+            for (String gram : distinctGrams(folded[position])) {
+                grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(position);
+            }
+        }
+        Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, positions) -> postings.put(gram, positions.stream().mapToInt(Integer::intValue).toArray()));
+        return new ClientNameIndex(folded, postings);
+    }
+
+    public int size() {
+        return folded.length;
+    }
+
+    // Positions of names containing term, ranked; limit <= 0 returns every match. A blank term
+    // matches every name in list order.
+    public int[] search(String term, int limit) {
+        int max = limit > 0 ? limit : Integer.MAX_VALUE;
+        String needle = term == null ? "" : fold(term.strip());
+        if (needle.isEmpty()) {
+            int[] all = new int[Math.min(max, folded.length)];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+
+        int[] candidates = candidates(needle);
+        if (candidates.length == 0) {
+            return NONE;
+        }
+        long[] ranked = new long[candidates.length];
+        int matches = 0;
+        for (int position : candidates) {
+            int at = folded[position].indexOf(needle);
+            if (at >= 0) {
+                ranked[matches++] = ((long) rank(folded[position], needle, at) << 32) | position;
+            }
+        }
+        Arrays.sort(ranked, 0, matches);
+        int[] result = new int[Math.min(max, matches)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) ranked[i];
+        }
+        return result;
+    }
+
+    // Every position for short terms, otherwise those holding all of the term's trigrams
+    private int[] candidates(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            int[] all = new int[folded.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        List<String> grams = distinctGrams(needle);
+        int[][] lists = new int[grams.size()][];
+        for (int i = 0; i < lists.length; i++) {
+            int[] list = postings.get(grams.get(i));
+            if (list == null) {
+                return NONE;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] current = lists[0];
+        for (int i = 1; i < lists.length && current.length > 0; i++) {
+            current = intersect(current, lists[i]);
+        }
+        return current;
+    }
+
+    // Lower is better; the occurrence offset breaks ties within a class. Fits the upper half of a long
+    // so that sorting (rank, position) pairs needs no comparator.
+    private static int rank(String name, String needle, int at) {
+        if (at == 0) {
+            return name.length() == needle.length() ? 0 : 1;
+        }
+        int wordStart = at;
+        while (wordStart > 0 && Character.isLetterOrDigit(name.charAt(wordStart - 1))) {
+            wordStart = name.indexOf(needle, wordStart + 1);
+        }
+        if (wordStart > 0) {
+            return (1 << 20) + Math.min(wordStart, (1 << 20) - 1);
+        }
+        return (2 << 20) + Math.min(at, (1 << 20) - 1);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static List<String> distinctGrams(String value) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        grams.sort(null);
+        List<String> distinct = new ArrayList<>(grams.size());
+        for (String gram : grams) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(gram)) {
+                distinct.add(gram);
+            }
+        }
+        return distinct;
+    }
+
+    // Char by char, so offsets in the folded name are offsets in the original
+    static String fold(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,220 @@
+package com.clevelanddx.packageintake.service.index;
+
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Distinct Scan_User and Status values held in memory so the /distinct endpoints never run a
+// full-table SELECT DISTINCT. Seeded once at startup; writes through InboundShipmentService add their
+// values (O(log n)), and a periodic resync folds in values of rows inserted or updated since the last
+// read, written by other processes such as email ingestion. Ordered and de-duplicated case-insensitively, like DISTINCT ... ORDER BY under the
+// column collation. A snapshot written periodically and on shutdown lets a restart read only the rows
+// changed since it was taken.
+@Component
+public class DistinctShipmentValues {
+
+    private static final Logger log = LoggerFactory.getLogger(DistinctShipmentValues.class);
+
+    private static final String SNAPSHOT_NAME = "distinct-values";
+    private static final int SNAPSHOT_VERSION = 1;
+    // Same overlap as the tracking number index, for rows updated while a sync runs
+    private static final long SYNC_OVERLAP_SECONDS = 300;
+
+    private final InboundShipmentRepository repository;
+    private final SnapshotStore snapshotStore;
+
+    private volatile NavigableSet<String> scanUsers = newSet();
+    private volatile NavigableSet<String> statuses = newSet();
+    private volatile boolean ready;
+    // Watermark of the last read from the table: rows up to this Row_ID and updated before this time are included
+    private volatile long syncedRowId;
+    private volatile LocalDateTime syncedAt;
+
+    @Autowired
+    public DistinctShipmentValues(InboundShipmentRepository repository, SnapshotStore snapshotStore) {
+        this.repository = repository;
+        this.snapshotStore = snapshotStore;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Ahead of StartupWarmup on the same event
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try {
+            boolean restored = restoreSnapshot();
+            if (!restored) {
+                rebuild();
+            }
+            log.info("Distinct shipment values loaded {} scan users and {} statuses{} in {} ms",
+                    scanUsers.size(), statuses.size(), restored ? " from the snapshot" : "",
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load distinct shipment values, retrying on the next resync", e);
+        }
+    }
+
+    // Adds values of rows inserted or updated since the last read; never drops any, so a value recorded
+    // while the query runs cannot be lost
+    @Scheduled(fixedDelayString = "${packageintake.distinct-values.resync-interval-ms:3600000}",
+               initialDelayString = "${packageintake.distinct-values.resync-interval-ms:3600000}")
+    public void resync() {
+        if (!ready) {
+            load();
+            return;
+        }
+        try {
+            catchUp(scanUsers, statuses, syncedRowId, syncedAt);
+        } catch (Exception e) {
+            log.warn("Distinct shipment values resync failed, will retry on next cycle", e);
+        }
+    }
+
+    // Replaces both sets with exactly what the table holds now, dropping values no row uses any more
+    public void rebuild() {
+        long maxRowId = repository.findMaxRowId();
+        LocalDateTime syncStart = LocalDateTime.now();
+        NavigableSet<String> freshScanUsers = newSet();
+        NavigableSet<String> freshStatuses = newSet();
+        addAll(freshScanUsers, repository.findDistinctScanUsers());
+        addAll(freshStatuses, repository.findDistinctStatuses());
+        scanUsers = freshScanUsers;
+        statuses = freshStatuses;
+        syncedRowId = maxRowId;
+        syncedAt = syncStart;
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${packageintake.snapshot.interval-ms:900000}",
+               initialDelayString = "${packageintake.snapshot.interval-ms:900000}")
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!ready || !snapshotStore.isEnabled()) {
+            return;
+        }
+        long watermarkRowId = syncedRowId;
+        LocalDateTime watermarkTime = syncedAt;
+        List<String> scanUserValues = List.copyOf(scanUsers);
+        List<String> statusValues = List.copyOf(statuses);
+        snapshotStore.write(SNAPSHOT_NAME, SNAPSHOT_VERSION, out -> {
+            out.writeLong(watermarkRowId);
+            SnapshotStore.writeDateTime(out, watermarkTime);
+            out.writeInt(scanUserValues.size());
+            for (String value : scanUserValues) {
+                SnapshotStore.writeString(out, value);
+            }
+            out.writeInt(statusValues.size());
+            for (String value : statusValues) {
+                SnapshotStore.writeString(out, value);
+            }
+        });
+    }
+
+    // Values from the snapshot plus those of rows inserted or updated after its watermark. A value whose
+    // last row went away meanwhile survives until the next rebuild, as with resync.
+    private boolean restoreSnapshot() {
+        Optional<ByteBuffer> snapshot = snapshotStore.read(SNAPSHOT_NAME, SNAPSHOT_VERSION);
+        if (snapshot.isEmpty()) {
+            return false;
+        }
+        NavigableSet<String> restoredScanUsers = newSet();
+        NavigableSet<String> restoredStatuses = newSet();
+        long watermarkRowId;
+        LocalDateTime watermarkTime;
+        try {
+            ByteBuffer in = snapshot.get();
+            watermarkRowId = in.getLong();
+            watermarkTime = SnapshotStore.readDateTime(in);
+            for (int i = in.getInt(); i > 0; i--) {
+                add(restoredScanUsers, SnapshotStore.readString(in));
+            }
+            for (int i = in.getInt(); i > 0; i--) {
+                add(restoredStatuses, SnapshotStore.readString(in));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Distinct values snapshot is unreadable, loading from the table", e);
+            return false;
+        }
+
+        catchUp(restoredScanUsers, restoredStatuses, watermarkRowId, watermarkTime);
+        scanUsers = restoredScanUsers;
+        statuses = restoredStatuses;
+        ready = true;
+        return true;
+    }
+
+    // Adds the values of rows inserted past the Row_ID watermark or updated since the time watermark, then
+    // moves both watermarks up
+    private void catchUp(NavigableSet<String> scanUserSet, NavigableSet<String> statusSet,
+                         long afterRowId, LocalDateTime watermarkTime) {
+        long maxRowId = repository.findMaxRowId();
+        LocalDateTime syncStart = LocalDateTime.now();
+        LocalDateTime since = watermarkTime.minusSeconds(SYNC_OVERLAP_SECONDS);
+        addAll(scanUserSet, repository.findDistinctScanUsersChangedSince(afterRowId, since));
+        addAll(statusSet, repository.findDistinctStatusesChangedSince(afterRowId, since));
+        syncedRowId = maxRowId;
+        syncedAt = syncStart;
+    }
+
+    // Until the first load succeeds only the values recorded so far; the table is never queried here
+    public List<String> scanUsers() {
+        return List.copyOf(scanUsers);
+    }
+
+    public List<String> statuses() {
+        return List.copyOf(statuses);
+    }
+
+    public void record(InboundShipment shipment) {
+        if (shipment != null) {
+            recordScanUser(shipment.getScanUser());
+            recordStatus(shipment.getStatus());
+        }
+    }
+
+    public void recordScanUser(String scanUser) {
+        add(scanUsers, scanUser);
+    }
+
+    public void recordStatus(String status) {
+        add(statuses, status);
+    }
+
+    private static NavigableSet<String> newSet() {
+        return new ConcurrentSkipListSet<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    private static void addAll(NavigableSet<String> set, Collection<String> values) {
+        for (String value : values) {
+            add(set, value);
+        }
+    }
+
+    // Same filter as the distinct queries: no NULLs and no blanks (SQL Server ignores trailing spaces)
+    private static void add(NavigableSet<String> set, String value) {
+        if (value != null && !value.isBlank()) {
+            set.add(value);
+        }
+    }
+}
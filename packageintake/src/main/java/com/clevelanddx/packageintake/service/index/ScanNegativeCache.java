@@ -0,0 +1,183 @@
+package com.clevelanddx.packageintake.service.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Answers "this scan cannot match any shipment" without touching SQL, for labels that do not belong to
+// an inbound shipment (outbound labels, internal stickers) and get re-scanned over and over.
+// Two layers, both bounded by the same staleness window (ttl):
+//  - a miss cache of scanned strings that recently came back empty from the database
+//  - a Bloom filter over every known tracking and scanned number, trusted only while the
+//    tracking number index has synced with the table within the ttl
+// Any newly indexed tracking or scanned number evicts the misses it could now satisfy.
+@Component
+public class ScanNegativeCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final double falsePositiveRate;
+
+    private final Map<String, Long> misses;
+    // Bumped by every add; a lookup that raced with an add must not record its stale miss
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile BloomFilter knownNumbers;
+    private volatile long bloomSyncedAt;
+    private volatile int minTrackingLength = Integer.MAX_VALUE;
+    private volatile int maxTrackingLength;
+
+    public ScanNegativeCache(@Value("${packageintake.scan-miss-cache.ttl-ms:60000}") long ttlMillis,
+                             @Value("${packageintake.scan-miss-cache.max-entries:10000}") int maxEntries,
+                             @Value("${packageintake.scan-miss-cache.bloom-false-positive-rate:0.01}") double falsePositiveRate) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.misses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > ScanNegativeCache.this.maxEntries;
+            }
+        };
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // True only when the scan is known not to match: either it missed recently, or the Bloom filter
+    // rules out the scanned number and every tracking number that could be embedded in it
+    public boolean isKnownMiss(String scannedNumber, Collection<String> decodedTrackingNumbers) {
+        String scanned = TrackingNumberIndex.normalize(scannedNumber);
+        if (scanned == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (misses) {
+            Long expiresAt = misses.get(scanned);
+            if (expiresAt != null) {
+                if (expiresAt > now) {
+                    return true;
+                }
+                misses.remove(scanned);
+            }
+        }
+
+        BloomFilter bloom = knownNumbers;
+        if (bloom == null || now - bloomSyncedAt > ttlMillis) {
+            return false;
+        }
+        if (bloom.mightContain(scanned)) {
+            return false;
+        }
+        if (decodedTrackingNumbers != null && !decodedTrackingNumbers.isEmpty()) {
+            for (String trackingNumber : decodedTrackingNumbers) {
+                String tracking = TrackingNumberIndex.normalize(trackingNumber);
+                if (tracking != null && bloom.mightContain(tracking)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return scanned.length() < TrackingNumberIndex.MIN_SCANNED_LENGTH || !mightEmbedTrackingNumber(bloom, scanned);
+    }
+
+    public void recordMiss(String scannedNumber, long generationAtLookup) {
+        String scanned = TrackingNumberIndex.normalize(scannedNumber);
+        if (scanned == null || maxEntries <= 0) {
+            return;
+        }
+        synchronized (misses) {
+            if (generation.get() == generationAtLookup) {
+                misses.put(scanned, System.currentTimeMillis() + ttlMillis);
+            }
+        }
+    }
+
+    // Called for every number the tracking number index learns about, including shipments created here
+    void add(String tracking, String scanned) {
+        BloomFilter bloom = knownNumbers;
+        if (tracking != null) {
+            if (bloom != null) {
+                bloom.put(tracking);
+            }
+            minTrackingLength = Math.min(minTrackingLength, tracking.length());
+            maxTrackingLength = Math.max(maxTrackingLength, tracking.length());
+        }
+        if (scanned != null && bloom != null) {
+            bloom.put(scanned);
+        }
+        synchronized (misses) {
+            generation.incrementAndGet();
+            if (misses.isEmpty()) {
+                return;
+            }
+            Iterator<String> it = misses.keySet().iterator();
+            while (it.hasNext()) {
+                String miss = it.next();
+                if ((tracking != null && miss.contains(tracking)) || miss.equals(scanned)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    // Replaces the Bloom filter; the caller holds the index lock so no add is lost during the rebuild
+    void rebuild(Collection<String> trackingNumbers, Collection<String> scannedNumbers) {
+        BloomFilter bloom = BloomFilter.create(2L * (trackingNumbers.size() + scannedNumbers.size()), falsePositiveRate);
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (String tracking : trackingNumbers) {
+            bloom.put(tracking);
+            min = Math.min(min, tracking.length());
+            max = Math.max(max, tracking.length());
+        }
+        for (String scanned : scannedNumbers) {
+            bloom.put(scanned);
+        }
+        minTrackingLength = min;
+        maxTrackingLength = max;
+        knownNumbers = bloom;
+    }
+
+    boolean needsRebuild(int knownNumberCount) {
+        BloomFilter bloom = knownNumbers;
+        return bloom == null || knownNumberCount > bloom.expectedInsertions();
+    }
+
+    // syncStartMillis is when the sync began reading the table; rows committed after that may be missing
+    void markSynced(long syncStartMillis) {
+        bloomSyncedAt = syncStartMillis;
+    }
+
+    public int missCount() {
+        synchronized (misses) {
+            return misses.size();
+        }
+    }
+
+    public void clearMisses() {
+        synchronized (misses) {
+            generation.incrementAndGet();
+            misses.clear();
+        }
+    }
+
+    private boolean mightEmbedTrackingNumber(BloomFilter bloom, String scanned) {
+        int min = minTrackingLength;
+        int max = Math.min(maxTrackingLength, scanned.length());
+        for (int length = min; length <= max; length++) {
+            for (int start = 0; start + length <= scanned.length(); start++) {
+                if (bloom.mightContain(scanned, start, start + length)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,165 @@
+package com.clevelanddx.packageintake.service.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Snapshot files of in-memory lookup state, so a restart maps the last snapshot and only catches up on
+// rows changed since its watermark instead of re-reading whole tables. One file per structure:
+// magic, format version, the owner's body, CRC32 of everything before it. Files are written to a temp
+// file and moved into place, so a crash mid-write leaves the previous snapshot intact. Anything
+// unreadable (missing, truncated, other version, bad checksum) is reported as absent and the owner
+// falls back to a full load.
+@Component
+public class SnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    private static final int MAGIC = 0x50494C53; // "PILS", package intake lookup snapshot
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int TRAILER_BYTES = Long.BYTES;
+
+    @FunctionalInterface
+    public interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public SnapshotStore(@Value("${packageintake.snapshot.enabled:true}") boolean enabled,
+                         @Value("${packageintake.snapshot.dir:data/snapshots}") String directory) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Serialized, so a shutdown write never shares the temp file with a scheduled one
+    public synchronized void write(String name, int version, Body body) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path target = directory.resolve(name + ".snapshot");
+        Path temp = directory.resolve(name + ".snapshot.tmp");
+        try {
+            Files.createDirectories(directory);
+            CRC32 crc = new CRC32();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream file = Channels.newOutputStream(channel);
+                DataOutputStream checked = new DataOutputStream(
+                        new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+                checked.writeInt(MAGIC);
+                checked.writeInt(version);
+                body.write(checked);
+                checked.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+                // On disk before it replaces the previous snapshot
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote {} snapshot ({} bytes) in {} ms", name, Files.size(target), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write {} snapshot to {}", name, target, e);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Overwritten by the next attempt
+            }
+        }
+    }
+
+    // The body of a valid snapshot, mapped read-only; positioned after the header with its limit before
+    // the checksum
+    public Optional<ByteBuffer> read(String name, int version) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Path target = directory.resolve(name + ".snapshot");
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + TRAILER_BYTES || size > Integer.MAX_VALUE) {
+                log.warn("Ignoring {} snapshot: unexpected size {}", name, size);
+                return Optional.empty();
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodyEnd = (int) size - TRAILER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(mapped.duplicate().limit(bodyEnd));
+            if (crc.getValue() != mapped.getLong(bodyEnd)) {
+                log.warn("Ignoring {} snapshot: checksum mismatch", name);
+                return Optional.empty();
+            }
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(Integer.BYTES) != version) {
+                log.warn("Ignoring {} snapshot: not format version {}", name, version);
+                return Optional.empty();
+            }
+            return Optional.of(mapped.position(HEADER_BYTES).limit(bodyEnd));
+        } catch (NoSuchFileException e) {
+            log.info("No {} snapshot at {}", name, target);
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read {} snapshot from {}", name, target, e);
+            return Optional.empty();
+        }
+    }
+
+    // Length-prefixed UTF-8, -1 for null
+    public static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Watermarks are compared with database times only, so the zone is irrelevant as long as it is fixed
+    public static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    public static LocalDateTime readDateTime(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
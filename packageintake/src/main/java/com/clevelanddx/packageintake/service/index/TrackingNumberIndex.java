@@ -0,0 +1,362 @@
+package com.clevelanddx.packageintake.service.index;
+
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import com.clevelanddx.packageintake.repository.InboundShipmentScanKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process index answering "which shipments does this scanned barcode belong to" without
+// running the LIKE CONCAT('%', Tracking_Number, '%') table scan. Mirrors the SQL lookup:
+// an exact Scanned_Number match wins, otherwise every row whose tracking number occurs in the scan.
+@Component
+public class TrackingNumberIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackingNumberIndex.class);
+
+    // Same guard as LEN(:scannedNumber) > 9 in the repository queries
+    static final int MIN_SCANNED_LENGTH = 10;
+    private static final int LOAD_BATCH_SIZE = 5000;
+    // Overlap between catch-up windows so rows updated while a sync runs are not missed
+    private static final long SYNC_OVERLAP_SECONDS = 300;
+    private static final String SNAPSHOT_NAME = "tracking-numbers";
+    private static final int SNAPSHOT_VERSION = 1;
+    // Row_IDs are identity values, so never negative
+    private static final long END_OF_ENTRIES = -1L;
+
+    private final InboundShipmentRepository repository;
+    private final ScanNegativeCache negativeCache;
+    private final SnapshotStore snapshotStore;
+
+    private final Map<Long, String> trackingByRowId = new ConcurrentHashMap<>();
+    private final Map<Long, String> scannedByRowId = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> rowIdsByTracking = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> rowIdsByScanned = new ConcurrentHashMap<>();
+    // Tracking numbers added since the automaton was last built; checked directly until the next rebuild
+    private final Set<String> pendingTrackingNumbers = ConcurrentHashMap.newKeySet();
+
+    private volatile TrackingNumberMatcher matcher = TrackingNumberMatcher.build(List.of());
+    private volatile boolean ready;
+    // Highest Row_ID read back from the table; rows created through this service are indexed directly
+    // and must not advance it, or rows inserted concurrently by other writers would be skipped
+    private volatile long syncedRowId;
+    private volatile LocalDateTime lastSync;
+
+    @Autowired
+    public TrackingNumberIndex(InboundShipmentRepository repository, ScanNegativeCache negativeCache,
+                               SnapshotStore snapshotStore) {
+        this.repository = repository;
+        this.negativeCache = negativeCache;
+        this.snapshotStore = snapshotStore;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return trackingByRowId.size();
+    }
+
+    // Ahead of StartupWarmup on the same event
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime syncStart = LocalDateTime.now();
+            // With a snapshot only rows past its watermark are read, otherwise the whole table
+            long restored = restoreSnapshot();
+            long loaded = catchUpInserts();
+            if (restored >= 0) {
+                loaded += catchUpUpdates(lastSync);
+            }
+            lastSync = syncStart;
+            rebuildMatcher();
+            rebuildNegativeCache();
+            negativeCache.markSynced(start);
+            ready = true;
+            log.info("Tracking number index loaded {} rows from the table and {} from the snapshot ({} tracking numbers) in {} ms",
+                    loaded, Math.max(restored, 0), matcher.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load tracking number index, scan lookups will use SQL", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${packageintake.scan-index.refresh-interval-ms:60000}",
+               initialDelayString = "${packageintake.scan-index.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        try {
+            long syncStartMillis = System.currentTimeMillis();
+            LocalDateTime syncStart = LocalDateTime.now();
+            catchUpInserts();
+            catchUpUpdates(lastSync);
+            lastSync = syncStart;
+            if (!pendingTrackingNumbers.isEmpty()) {
+                rebuildMatcher();
+            }
+            if (negativeCache.needsRebuild(rowIdsByTracking.size() + rowIdsByScanned.size())) {
+                rebuildNegativeCache();
+            }
+            negativeCache.markSynced(syncStartMillis);
+        } catch (Exception e) {
+            log.warn("Tracking number index refresh failed, will retry on next cycle", e);
+        }
+    }
+
+    // Periodically and on shutdown, so the next start can skip the full load
+    @Scheduled(fixedDelayString = "${packageintake.snapshot.interval-ms:900000}",
+               initialDelayString = "${packageintake.snapshot.interval-ms:900000}")
+    @PreDestroy
+    public void writeSnapshot() {
+        if (!ready || !snapshotStore.isEnabled()) {
+            return;
+        }
+        // Watermarks are taken before the entries, so anything indexed meanwhile is caught up again
+        long watermarkRowId = syncedRowId;
+        LocalDateTime watermarkTime = lastSync;
+        snapshotStore.write(SNAPSHOT_NAME, SNAPSHOT_VERSION, out -> {
+            out.writeLong(watermarkRowId);
+            SnapshotStore.writeDateTime(out, watermarkTime);
+            for (Map.Entry<Long, String> entry : trackingByRowId.entrySet()) {
+                out.writeLong(entry.getKey());
+                SnapshotStore.writeString(out, entry.getValue());
+                SnapshotStore.writeString(out, scannedByRowId.get(entry.getKey()));
+            }
+            for (Map.Entry<Long, String> entry : scannedByRowId.entrySet()) {
+                if (!trackingByRowId.containsKey(entry.getKey())) {
+                    out.writeLong(entry.getKey());
+                    SnapshotStore.writeString(out, null);
+                    SnapshotStore.writeString(out, entry.getValue());
+                }
+            }
+            out.writeLong(END_OF_ENTRIES);
+        });
+    }
+
+    public void index(InboundShipment shipment) {
+        if (shipment != null) {
+            index(shipment.getRowId(), shipment.getTrackingNumber(), shipment.getScannedNumber());
+        }
+    }
+
+    public synchronized void index(Long rowId, String trackingNumber, String scannedNumber) {
+        if (rowId == null) {
+            return;
+        }
+        String tracking = normalize(trackingNumber);
+        String previousTracking = tracking == null ? trackingByRowId.remove(rowId) : trackingByRowId.put(rowId, tracking);
+        if (previousTracking != null && !previousTracking.equals(tracking)) {
+            unlink(rowIdsByTracking, previousTracking, rowId);
+        }
+        if (tracking != null) {
+            link(rowIdsByTracking, tracking, rowId);
+            if (!matcher.contains(tracking)) {
+                pendingTrackingNumbers.add(tracking);
+            }
+        }
+
+        String scanned = normalize(scannedNumber);
+        String previousScanned = scanned == null ? scannedByRowId.remove(rowId) : scannedByRowId.put(rowId, scanned);
+        if (previousScanned != null && !previousScanned.equals(scanned)) {
+            unlink(rowIdsByScanned, previousScanned, rowId);
+        }
+        if (scanned != null) {
+            link(rowIdsByScanned, scanned, rowId);
+        }
+        negativeCache.add(tracking, scanned);
+    }
+
+    public synchronized void remove(Long rowId) {
+        if (rowId == null) {
+            return;
+        }
+        String tracking = trackingByRowId.remove(rowId);
+        if (tracking != null) {
+            unlink(rowIdsByTracking, tracking, rowId);
+        }
+        String scanned = scannedByRowId.remove(rowId);
+        if (scanned != null) {
+            unlink(rowIdsByScanned, scanned, rowId);
+        }
+    }
+
+    // Row IDs matching the scanned number, highest first. Empty means "not known to the index".
+    public List<Long> findRowIds(String scannedNumber) {
+        String scanned = normalize(scannedNumber);
+        if (scanned == null) {
+            return List.of();
+        }
+
+        List<Long> exact = descending(rowIdsByScanned.get(scanned));
+        if (!exact.isEmpty()) {
+            return exact;
+        }
+        if (scanned.length() < MIN_SCANNED_LENGTH) {
+            return List.of();
+        }
+
+        TreeSet<Long> rowIds = new TreeSet<>(Comparator.reverseOrder());
+        matcher.forEachMatch(scanned, trackingNumber -> addRowIds(rowIds, trackingNumber));
+        for (String trackingNumber : pendingTrackingNumbers) {
+            if (scanned.contains(trackingNumber)) {
+                addRowIds(rowIds, trackingNumber);
+            }
+        }
+        return new ArrayList<>(rowIds);
+    }
+
+    public List<Long> findRowIdsByScannedNumber(String scannedNumber) {
+        String scanned = normalize(scannedNumber);
+        return scanned == null ? List.of() : descending(rowIdsByScanned.get(scanned));
+    }
+
+    public List<Long> findRowIdsByTrackingNumbers(Collection<String> trackingNumbers) {
+        TreeSet<Long> rowIds = new TreeSet<>(Comparator.reverseOrder());
+        for (String trackingNumber : trackingNumbers) {
+            String tracking = normalize(trackingNumber);
+            if (tracking != null) {
+                addRowIds(rowIds, tracking);
+            }
+        }
+        return new ArrayList<>(rowIds);
+    }
+
+    // Number of rows restored and the snapshot's watermarks applied, or -1 when there is no usable snapshot
+    private long restoreSnapshot() {
+        Optional<ByteBuffer> snapshot = snapshotStore.read(SNAPSHOT_NAME, SNAPSHOT_VERSION);
+        if (snapshot.isEmpty()) {
+            return -1;
+        }
+        ByteBuffer in = snapshot.get();
+        try {
+            long watermarkRowId = in.getLong();
+            LocalDateTime watermarkTime = SnapshotStore.readDateTime(in);
+            long restored = 0;
+            for (long rowId = in.getLong(); rowId != END_OF_ENTRIES; rowId = in.getLong()) {
+                index(rowId, SnapshotStore.readString(in), SnapshotStore.readString(in));
+                restored++;
+            }
+            syncedRowId = watermarkRowId;
+            lastSync = watermarkTime;
+            return restored;
+        } catch (RuntimeException e) {
+            log.warn("Tracking number snapshot is unreadable, loading from the table", e);
+            clear();
+            return -1;
+        }
+    }
+
+    private synchronized void clear() {
+        trackingByRowId.clear();
+        scannedByRowId.clear();
+        rowIdsByTracking.clear();
+        rowIdsByScanned.clear();
+        pendingTrackingNumbers.clear();
+        syncedRowId = 0;
+        lastSync = null;
+    }
+
+    private long catchUpInserts() {
+        long loaded = 0;
+        long after = syncedRowId;
+        List<InboundShipmentScanKey> batch;
+        do {
+            batch = repository.findScanKeysAfter(after, LOAD_BATCH_SIZE);
+            for (InboundShipmentScanKey key : batch) {
+                index(key.getRowId(), key.getTrackingNumber(), key.getScannedNumber());
+                after = key.getRowId();
+            }
+            loaded += batch.size();
+            syncedRowId = after;
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return loaded;
+    }
+
+    private long catchUpUpdates(LocalDateTime since) {
+        long updated = 0;
+        for (InboundShipmentScanKey key : repository.findScanKeysUpdatedSince(since.minusSeconds(SYNC_OVERLAP_SECONDS))) {
+            index(key.getRowId(), key.getTrackingNumber(), key.getScannedNumber());
+            updated++;
+        }
+        return updated;
+    }
+
+    private void rebuildMatcher() {
+        long start = System.currentTimeMillis();
+        List<String> included = new ArrayList<>(pendingTrackingNumbers);
+        matcher = TrackingNumberMatcher.build(new ArrayList<>(rowIdsByTracking.keySet()));
+        pendingTrackingNumbers.removeAll(included);
+        log.debug("Rebuilt tracking number automaton with {} patterns in {} ms",
+                matcher.size(), System.currentTimeMillis() - start);
+    }
+
+    // Holds the index lock so numbers indexed while the filter is rebuilt are not lost
+    private synchronized void rebuildNegativeCache() {
+        negativeCache.rebuild(rowIdsByTracking.keySet(), rowIdsByScanned.keySet());
+    }
+
+    private void addRowIds(Set<Long> target, String trackingNumber) {
+        Set<Long> rowIds = rowIdsByTracking.get(trackingNumber);
+        if (rowIds != null) {
+            target.addAll(rowIds);
+        }
+    }
+
+    private static List<Long> descending(Set<Long> rowIds) {
+        if (rowIds == null || rowIds.isEmpty()) {
+            return List.of();
+        }
+        TreeSet<Long> sorted = new TreeSet<>(Comparator.reverseOrder());
+        sorted.addAll(rowIds);
+        return new ArrayList<>(sorted);
+    }
+
+    private static void link(Map<String, Set<Long>> postings, String key, Long rowId) {
+        postings.compute(key, (k, rowIds) -> {
+            Set<Long> updated = rowIds != null ? rowIds : ConcurrentHashMap.newKeySet();
+            updated.add(rowId);
+            return updated;
+        });
+    }
+
+    private static void unlink(Map<String, Set<Long>> postings, String key, Long rowId) {
+        postings.computeIfPresent(key, (k, rowIds) -> {
+            rowIds.remove(rowId);
+            return rowIds.isEmpty() ? null : rowIds;
+        });
+    }
+
+    // SQL Server compares these columns case-insensitively and ignores surrounding blanks
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+}
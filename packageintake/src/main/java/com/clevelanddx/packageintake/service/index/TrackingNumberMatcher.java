@@ -0,0 +1,261 @@
+package com.clevelanddx.packageintake.service.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Immutable Aho-Corasick automaton over a set of tracking numbers.
+// Matching a scanned string costs O(length of the scan + number of matches), independent of
+// how many tracking numbers are loaded. Trie edges live in one open-addressing table keyed by
+// (node, char) so the automaton stays compact for hundreds of thousands of patterns.
+public final class TrackingNumberMatcher {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final long EMPTY_KEY = -1L;
+
+    private final String[] patterns;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] dictionaryLink;
+    private final long[] edgeKeys;
+    private final int[] edgeTargets;
+    private final int edgeMask;
+
+    private TrackingNumberMatcher(String[] patterns, int[] fail, int[] output, int[] dictionaryLink,
+                                  long[] edgeKeys, int[] edgeTargets) {
+        this.patterns = patterns;
+        this.fail = fail;
+        this.output = output;
+        this.dictionaryLink = dictionaryLink;
+        this.edgeKeys = edgeKeys;
+        this.edgeTargets = edgeTargets;
+        this.edgeMask = edgeKeys.length - 1;
+    }
+
+    public static TrackingNumberMatcher build(Collection<String> input) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String pattern : input) {
+            if (pattern != null && !pattern.isEmpty()) {
+                unique.add(pattern);
+            }
+        }
+        return new Builder(unique).build();
+    }
+
+    public int size() {
+        return patterns.length;
+    }
+
+    public boolean contains(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            return false;
+        }
+        int node = ROOT;
+        for (int i = 0; i < pattern.length(); i++) {
+            node = edge(node, pattern.charAt(i));
+            if (node == NONE) {
+                return false;
+            }
+        }
+        return output[node] != NONE;
+    }
+
+    // Reports every pattern that occurs in the text; a pattern occurring more than once is reported once per occurrence
+    public void forEachMatch(CharSequence text, Consumer<String> consumer) {
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = edge(node, c);
+            while (next == NONE && node != ROOT) {
+                node = fail[node];
+                next = edge(node, c);
+            }
+            node = next == NONE ? ROOT : next;
+
+            int hit = output[node] != NONE ? node : dictionaryLink[node];
+            while (hit != NONE) {
+                consumer.accept(patterns[output[hit]]);
+                hit = dictionaryLink[hit];
+            }
+        }
+    }
+
+    private int edge(int node, char c) {
+        long key = edgeKey(node, c);
+        int slot = slot(key, edgeMask);
+        while (true) {
+            long current = edgeKeys[slot];
+            if (current == key) {
+                return edgeTargets[slot];
+            }
+            if (current == EMPTY_KEY) {
+                return NONE;
+            }
+            slot = (slot + 1) & edgeMask;
+        }
+    }
+
+    private static long edgeKey(int node, char c) {
+        return ((long) node << 16) | c;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static final class Builder {
+        private final String[] patterns;
+        private int nodeCount = 1;
+        private int[] output;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private char[] label;
+        private long[] edgeKeys;
+        private int[] edgeTargets;
+        private int edgeCount;
+
+        Builder(Set<String> unique) {
+            this.patterns = unique.toArray(new String[0]);
+            int estimatedNodes = Math.max(16, patterns.length * 8);
+            output = filled(estimatedNodes);
+            firstChild = filled(estimatedNodes);
+            nextSibling = filled(estimatedNodes);
+            label = new char[estimatedNodes];
+            int edgeCapacity = Integer.highestOneBit(estimatedNodes * 2 - 1) << 1;
+            edgeKeys = new long[edgeCapacity];
+            Arrays.fill(edgeKeys, EMPTY_KEY);
+            edgeTargets = new int[edgeCapacity];
+        }
+
+        TrackingNumberMatcher build() {
+            for (int p = 0; p < patterns.length; p++) {
+                insert(p);
+            }
+
+            int[] fail = new int[nodeCount];
+            int[] dictionaryLink = filled(nodeCount);
+            int[] queue = new int[nodeCount];
+            int head = 0;
+            int tail = 0;
+
+            for (int child = firstChild[ROOT]; child != NONE; child = nextSibling[child]) {
+                fail[child] = ROOT;
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int node = queue[head++];
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    char c = label[child];
+                    int state = fail[node];
+                    int target = find(state, c);
+                    while (target == NONE && state != ROOT) {
+                        state = fail[state];
+                        target = find(state, c);
+                    }
+                    fail[child] = target == NONE ? ROOT : target;
+                    int suffix = fail[child];
+                    dictionaryLink[child] = output[suffix] != NONE ? suffix : dictionaryLink[suffix];
+                    queue[tail++] = child;
+                }
+            }
+
+            return new TrackingNumberMatcher(patterns, fail, Arrays.copyOf(output, nodeCount), dictionaryLink,
+                    edgeKeys, edgeTargets);
+        }
+
+        private void insert(int patternIndex) {
+            String pattern = patterns[patternIndex];
+            int node = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int next = find(node, c);
+                if (next == NONE) {
+                    next = addNode(node, c);
+                }
+                node = next;
+            }
+            output[node] = patternIndex;
+        }
+
+        private int addNode(int parent, char c) {
+            if (nodeCount == output.length) {
+                int capacity = output.length * 2;
+                output = grow(output, capacity);
+                firstChild = grow(firstChild, capacity);
+                nextSibling = grow(nextSibling, capacity);
+                label = Arrays.copyOf(label, capacity);
+            }
+            int node = nodeCount++;
+            label[node] = c;
+            nextSibling[node] = firstChild[parent];
+            firstChild[parent] = node;
+            putEdge(edgeKey(parent, c), node);
+            return node;
+        }
+
+        private int find(int node, char c) {
+            long key = edgeKey(node, c);
+            int mask = edgeKeys.length - 1;
+            int slot = slot(key, mask);
+            while (true) {
+                long current = edgeKeys[slot];
+                if (current == key) {
+                    return edgeTargets[slot];
+                }
+                if (current == EMPTY_KEY) {
+                    return NONE;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void putEdge(long key, int target) {
+            if ((edgeCount + 1) * 2 > edgeKeys.length) {
+                rehash(edgeKeys.length * 2);
+            }
+            int mask = edgeKeys.length - 1;
+            int slot = slot(key, mask);
+            while (edgeKeys[slot] != EMPTY_KEY) {
+                slot = (slot + 1) & mask;
+            }
+            edgeKeys[slot] = key;
+            edgeTargets[slot] = target;
+            edgeCount++;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = edgeKeys;
+            int[] oldTargets = edgeTargets;
+            edgeKeys = new long[capacity];
+            Arrays.fill(edgeKeys, EMPTY_KEY);
+            edgeTargets = new int[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY_KEY) {
+                    int slot = slot(oldKeys[i], mask);
+                    while (edgeKeys[slot] != EMPTY_KEY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    edgeKeys[slot] = oldKeys[i];
+                    edgeTargets[slot] = oldTargets[i];
+                }
+            }
+        }
+
+        private static int[] filled(int size) {
+            int[] array = new int[size];
+            Arrays.fill(array, NONE);
+            return array;
+        }
+
+        private static int[] grow(int[] array, int capacity) {
+            int[] grown = Arrays.copyOf(array, capacity);
+            Arrays.fill(grown, array.length, capacity, NONE);
+            return grown;
+        }
+    }
+}
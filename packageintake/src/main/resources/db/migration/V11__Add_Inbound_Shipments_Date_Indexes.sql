@@ -0,0 +1,18 @@
+-- Nonclustered indexes for the date filters. The search and date endpoints compare these
+-- columns with half-open ranges (col >= @from AND col < @to + 1 day), which can seek here.
+-- Row_ID is the clustered key, so every index already carries it for ORDER BY Row_ID DESC.
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Inbound_Shipments_Scan_Time' AND object_id = OBJECT_ID('Inbound_Shipments'))
+    CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Scan_Time
+    ON Inbound_Shipments (Scan_Time);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Inbound_Shipments_Ship_Date' AND object_id = OBJECT_ID('Inbound_Shipments'))
+    CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Ship_Date
+    ON Inbound_Shipments (Ship_Date);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Inbound_Shipments_Email_Receive_Datetime' AND object_id = OBJECT_ID('Inbound_Shipments'))
+    CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Email_Receive_Datetime
+    ON Inbound_Shipments (Email_Receive_Datetime);
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'IX_Inbound_Shipments_Last_Update_Datetime' AND object_id = OBJECT_ID('Inbound_Shipments'))
+    CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Last_Update_Datetime
+    ON Inbound_Shipments (Last_Update_Datetime);
@@ -0,0 +1,53 @@
+-- NVARCHAR(MAX) columns cannot be index keys, so every equality lookup on them (tracking number,
+-- order number, client, status) and the client trigger join scanned the table. Move the lookup
+-- columns to bounded lengths and index them. Lengths match the @Column lengths on the entities.
+
+-- Refuse to run rather than truncate: fix or shorten the offending rows, then re-run the migration
+IF EXISTS (SELECT 1 FROM Inbound_Shipments
+           WHERE LEN(Tracking_Number) > 100 OR LEN(Order_Number) > 100 OR LEN(Status) > 100
+              OR LEN(Lab) > 100 OR LEN(Client) > 255 OR LEN(Scan_User) > 255)
+    THROW 50010, 'Inbound_Shipments has values longer than the new column lengths; see V12 for the limits.', 1;
+
+IF EXISTS (SELECT 1 FROM Inbound_Shipments_Clients WHERE LEN(Client) > 255)
+    THROW 50011, 'Inbound_Shipments_Clients has client names longer than 255 characters.', 1;
+GO
+
+ALTER TABLE Inbound_Shipments ALTER COLUMN Tracking_Number NVARCHAR(100) NULL;
+ALTER TABLE Inbound_Shipments ALTER COLUMN Order_Number NVARCHAR(100) NULL;
+ALTER TABLE Inbound_Shipments ALTER COLUMN Status NVARCHAR(100) NULL;
+ALTER TABLE Inbound_Shipments ALTER COLUMN Lab NVARCHAR(100) NULL;
+ALTER TABLE Inbound_Shipments ALTER COLUMN Client NVARCHAR(255) NULL;
+ALTER TABLE Inbound_Shipments ALTER COLUMN Scan_User NVARCHAR(255) NULL;
+ALTER TABLE Inbound_Shipments_Clients ALTER COLUMN Client NVARCHAR(255) NULL;
+GO
+
+-- Tracking numbers are not unique (a shipment can be re-sent by email), so this is a plain index.
+-- It is filtered on IS NOT NULL only: a parameterised "Tracking_Number = @p" implies that
+-- predicate, whereas an extra "<> ''" filter would stop the optimizer from matching the index.
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Tracking_Number
+ON Inbound_Shipments (Tracking_Number)
+WHERE Tracking_Number IS NOT NULL;
+
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Order_Number
+ON Inbound_Shipments (Order_Number)
+WHERE Order_Number IS NOT NULL;
+
+-- Row_ID (the clustered key) rides along as a trailing key, so "Client = @c AND Row_ID < @cursor
+-- ORDER BY Row_ID DESC" is a single range seek; same for Status
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Client
+ON Inbound_Shipments (Client);
+
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Status
+ON Inbound_Shipments (Status);
+
+-- Covers SELECT DISTINCT Scan_User
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Scan_User
+ON Inbound_Shipments (Scan_User)
+WHERE Scan_User IS NOT NULL;
+
+-- The client trigger back-fills Client_ID for rows where it is still NULL
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Client_ID
+ON Inbound_Shipments (Client_ID);
+
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Clients_Client
+ON Inbound_Shipments_Clients (Client);
@@ -0,0 +1,112 @@
+-- Trigram postings for the contains-style search filters (LIKE '%term%' cannot use an index).
+-- One row per distinct upper-cased 3-character substring of a searchable column value.
+-- Field: 1 = Tracking_Number, 2 = Scanned_Number, 3 = Order_Number, 4 = Client
+-- (must match ShipmentSearchQueryBuilder). The search narrows to rows holding every trigram of the
+-- term and still applies the LIKE, so the table only has to be complete, never exact.
+CREATE TABLE Inbound_Shipments_Ngram (
+    Field TINYINT NOT NULL,
+    Gram NVARCHAR(3) NOT NULL,
+    Row_ID BIGINT NOT NULL,
+    CONSTRAINT PK_Inbound_Shipments_Ngram PRIMARY KEY CLUSTERED (Field, Gram, Row_ID)
+);
+
+-- Lets the trigger drop a row's postings without scanning every gram
+CREATE NONCLUSTERED INDEX IX_Inbound_Shipments_Ngram_Row_ID
+ON Inbound_Shipments_Ngram (Row_ID, Field);
+GO
+
+-- Maintained by trigger so rows written outside this service (email ingestion) are covered too.
+-- Only values that actually changed are re-indexed; a scan stamp touches Scanned_Number alone.
+CREATE TRIGGER TR_Inbound_Shipments_Ngram
+ON Inbound_Shipments
+AFTER INSERT, UPDATE, DELETE
+AS
+BEGIN
+    SET NOCOUNT ON;
+
+    IF EXISTS (SELECT 1 FROM inserted) AND EXISTS (SELECT 1 FROM deleted)
+       AND NOT (UPDATE(Tracking_Number) OR UPDATE(Scanned_Number) OR UPDATE(Order_Number) OR UPDATE(Client))
+        RETURN;
+
+    -- NVARCHAR(MAX): Scanned_Number is unbounded, and a narrower variable would fail the shipment write
+    DECLARE @old TABLE (Row_ID BIGINT NOT NULL, Field TINYINT NOT NULL, Value NVARCHAR(MAX) NOT NULL);
+    DECLARE @new TABLE (Row_ID BIGINT NOT NULL, Field TINYINT NOT NULL, Value NVARCHAR(MAX) NOT NULL);
+    DECLARE @added TABLE (Row_ID BIGINT NOT NULL, Field TINYINT NOT NULL, Value NVARCHAR(MAX) NOT NULL);
+
+    INSERT INTO @old (Row_ID, Field, Value)
+    SELECT d.Row_ID, f.Field, UPPER(f.Value)
+    FROM deleted d
+    CROSS APPLY (VALUES (1, d.Tracking_Number), (2, d.Scanned_Number), (3, d.Order_Number), (4, d.Client)) f (Field, Value)
+    WHERE LEN(f.Value) >= 3;
+
+    INSERT INTO @new (Row_ID, Field, Value)
+    SELECT i.Row_ID, f.Field, UPPER(f.Value)
+    FROM inserted i
+    CROSS APPLY (VALUES (1, i.Tracking_Number), (2, i.Scanned_Number), (3, i.Order_Number), (4, i.Client)) f (Field, Value)
+    WHERE LEN(f.Value) >= 3;
+
+    DELETE g
+    FROM Inbound_Shipments_Ngram g
+    INNER JOIN (SELECT Row_ID, Field, Value FROM @old
+                EXCEPT
+                SELECT Row_ID, Field, Value FROM @new) gone
+        ON g.Row_ID = gone.Row_ID AND g.Field = gone.Field;
+
+    INSERT INTO @added (Row_ID, Field, Value)
+    SELECT Row_ID, Field, Value FROM @new
+    EXCEPT
+    SELECT Row_ID, Field, Value FROM @old;
+
+    -- One tally row per gram start of the longest value; the cascade reaches 2^32 rows, beyond the
+    -- NVARCHAR(MAX) limit, and TOP stops it at what is needed
+    DECLARE @longest BIGINT = (SELECT ISNULL(MAX(LEN(Value)), 0) FROM @added);
+
+    WITH T16 AS (SELECT x FROM (VALUES (0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0)) v (x)),
+    T256 AS (SELECT a.x FROM T16 a CROSS JOIN T16 b),
+    T65536 AS (SELECT a.x FROM T256 a CROSS JOIN T256 b),
+    Tally AS (
+        SELECT TOP (@longest) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n
+        FROM T65536 a CROSS JOIN T65536 b
+    )
+    INSERT INTO Inbound_Shipments_Ngram (Field, Gram, Row_ID)
+    SELECT DISTINCT a.Field, SUBSTRING(a.Value, t.n, 3), a.Row_ID
+    FROM @added a
+    INNER JOIN Tally t ON t.n <= LEN(a.Value) - 2;
+END;
+GO
+
+-- Back-fill existing rows in Row_ID slices to keep each statement's log and memory use bounded
+DECLARE @from BIGINT = 0;
+DECLARE @max BIGINT = (SELECT ISNULL(MAX(Row_ID), 0) FROM Inbound_Shipments);
+DECLARE @slice BIGINT = 50000;
+DECLARE @longest BIGINT = (
+    SELECT ISNULL(MAX(v.Length), 0)
+    FROM (SELECT MAX(LEN(Tracking_Number)) AS Length FROM Inbound_Shipments
+          UNION ALL SELECT MAX(LEN(Scanned_Number)) FROM Inbound_Shipments
+          UNION ALL SELECT MAX(LEN(Order_Number)) FROM Inbound_Shipments
+          UNION ALL SELECT MAX(LEN(Client)) FROM Inbound_Shipments) v);
+
+WHILE @from < @max
+BEGIN
+    -- Same tally as the trigger, up to the longest stored value
+    WITH T16 AS (SELECT x FROM (VALUES (0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0),(0)) v (x)),
+    T256 AS (SELECT a.x FROM T16 a CROSS JOIN T16 b),
+    T65536 AS (SELECT a.x FROM T256 a CROSS JOIN T256 b),
+    Tally AS (
+        SELECT TOP (@longest) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS n
+        FROM T65536 a CROSS JOIN T65536 b
+    ),
+    Vals AS (
+        SELECT s.Row_ID, f.Field, UPPER(f.Value) AS Value
+        FROM Inbound_Shipments s
+        CROSS APPLY (VALUES (1, s.Tracking_Number), (2, s.Scanned_Number), (3, s.Order_Number), (4, s.Client)) f (Field, Value)
+        WHERE s.Row_ID > @from AND s.Row_ID <= @from + @slice
+          AND LEN(f.Value) >= 3
+    )
+    INSERT INTO Inbound_Shipments_Ngram (Field, Gram, Row_ID)
+    SELECT DISTINCT v.Field, SUBSTRING(v.Value, t.n, 3), v.Row_ID
+    FROM Vals v
+    INNER JOIN Tally t ON t.n <= LEN(v.Value) - 2;
+
+    SET @from = @from + @slice;
+END;
@@ -0,0 +1,23 @@
+-- Concurrent find-or-create calls could insert the same (Type, Value) twice. Fold existing duplicates
+-- into the lowest Row_ID, repointing shipments first, then let a unique index reject new ones.
+-- Duplicates are judged by the column collation, the same comparison the lookups use.
+WITH Ranked AS (
+    SELECT Row_ID, MIN(Row_ID) OVER (PARTITION BY Type, Value) AS Keep_ID
+    FROM Inbound_Shipments_Reference
+)
+UPDATE s
+SET Shipment_Type = r.Keep_ID
+FROM Inbound_Shipments s
+INNER JOIN Ranked r ON s.Shipment_Type = r.Row_ID
+WHERE r.Row_ID <> r.Keep_ID;
+
+WITH Ranked AS (
+    SELECT Row_ID, MIN(Row_ID) OVER (PARTITION BY Type, Value) AS Keep_ID
+    FROM Inbound_Shipments_Reference
+)
+DELETE FROM Ranked
+WHERE Row_ID <> Keep_ID;
+GO
+
+CREATE UNIQUE NONCLUSTERED INDEX UX_Inbound_Shipments_Reference_Type_Value
+ON Inbound_Shipments_Reference (Type, Value);
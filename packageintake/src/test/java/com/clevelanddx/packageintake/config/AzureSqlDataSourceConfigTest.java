@@ -0,0 +1,50 @@
+package com.clevelanddx.packageintake.config;
+
+import com.microsoft.sqlserver.jdbc.SQLServerDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AzureSqlDataSourceConfigTest {
+
+    private static final String URL = "jdbc:sqlserver://localhost:1433;database=ACE";
+
+    private final AzureTokenProvider tokenProvider = mock(AzureTokenProvider.class);
+
+    @Test
+    void dataSource_ShouldPoolTheTokenDataSourceWithConfiguredSettings() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.url", URL)
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "7")
+                .withProperty("spring.datasource.hikari.max-lifetime", "1200000")
+                .withProperty("spring.datasource.hikari.leak-detection-threshold", "0");
+
+        try (HikariDataSource pool = (HikariDataSource) new AzureSqlDataSourceConfig(tokenProvider).dataSource(environment)) {
+            assertEquals(7, pool.getMaximumPoolSize());
+            assertEquals(1_200_000, pool.getMaxLifetime());
+            assertEquals(0, pool.getLeakDetectionThreshold());
+            SQLServerDataSource target = (SQLServerDataSource) pool.getDataSource();
+            assertEquals(URL, target.getURL());
+            assertNull(pool.getJdbcUrl());
+        }
+        // Nothing connects until the first borrow
+        verifyNoInteractions(tokenProvider);
+    }
+
+    @Test
+    void dataSource_WithoutPoolSettings_ShouldRecycleConnectionsWithinTheTokenLifetime() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.datasource.url", URL);
+
+        try (HikariDataSource pool = (HikariDataSource) new AzureSqlDataSourceConfig(tokenProvider).dataSource(environment)) {
+            assertEquals("packageintake", pool.getPoolName());
+            assertEquals(20, pool.getMaximumPoolSize());
+            assertEquals(5, pool.getMinimumIdle());
+            assertEquals(2_700_000, pool.getMaxLifetime());
+            assertTrue(pool.getMaxLifetime() < 3_600_000);
+            assertEquals(60_000, pool.getLeakDetectionThreshold());
+        }
+    }
+}
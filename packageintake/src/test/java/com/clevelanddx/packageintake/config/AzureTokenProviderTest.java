@@ -0,0 +1,147 @@
+package com.clevelanddx.packageintake.config;
+
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AzureTokenProviderTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-10-18T08:00:00Z"));
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    // Tokens valid for an hour from the test clock's current time
+    private final TokenCredential credential = request -> Mono.fromSupplier(() -> {
+        if (failing.get()) {
+            throw new IllegalStateException("Entra ID unavailable");
+        }
+        return new AccessToken("token-" + fetches.incrementAndGet(),
+                clock.instant().plus(Duration.ofHours(1)).atOffset(ZoneOffset.UTC));
+    });
+
+    private AzureTokenProvider provider(TokenCredential credential) {
+        return new AzureTokenProvider(credential, meterRegistry, clock, 5 * MINUTE, 1_000, MINUTE);
+    }
+
+    @Test
+    void getToken_ShouldFetchOnceAndServeTheCachedToken() {
+        StubTokenCredential stub = new StubTokenCredential(Duration.ofHours(1));
+        AzureTokenProvider provider = new AzureTokenProvider(stub, meterRegistry, 5 * MINUTE, 1_000, MINUTE);
+
+        assertEquals("stub-token-1", provider.getToken());
+        assertEquals("stub-token-1", provider.getToken());
+
+        assertEquals(1, stub.getIssued());
+        assertEquals(1, meterRegistry.get("azure.token.refresh").tag("outcome", "success").timer().count());
+        assertTrue(meterRegistry.get("azure.token.expires.in").gauge().value() > 3500);
+    }
+
+    @Test
+    void refreshInBackground_ShouldFetchAheadOfTheTokensExpiry() {
+        AzureTokenProvider provider = provider(credential);
+
+        assertEquals(55 * MINUTE, provider.refreshInBackground());
+        assertEquals("token-1", provider.getToken());
+
+        clock.advance(Duration.ofMinutes(30));
+        assertEquals(25 * MINUTE, provider.refreshInBackground());
+        assertEquals(1, fetches.get());
+
+        clock.advance(Duration.ofMinutes(25));
+        assertEquals(55 * MINUTE, provider.refreshInBackground());
+        assertEquals("token-2", provider.getToken());
+    }
+
+    @Test
+    void refreshInBackground_WithShortLivedToken_ShouldRefreshHalfwayThrough() {
+        TokenCredential shortLived = request -> Mono.just(
+                new AccessToken("short", clock.instant().plus(Duration.ofMinutes(4)).atOffset(ZoneOffset.UTC)));
+
+        assertEquals(2 * MINUTE, provider(shortLived).refreshInBackground());
+    }
+
+    @Test
+    void refreshInBackground_WhenRefreshFails_ShouldBackOffAndKeepServingTheCurrentToken() {
+        AzureTokenProvider provider = provider(credential);
+        provider.refreshInBackground();
+        clock.advance(Duration.ofMinutes(56));
+        failing.set(true);
+
+        long first = provider.refreshInBackground();
+        long second = provider.refreshInBackground();
+
+        assertTrue(first >= 500 && first <= 1_000, "first retry " + first);
+        assertTrue(second >= 1_000 && second <= 2_000, "second retry " + second);
+        assertEquals("token-1", provider.getToken());
+        assertEquals(2, meterRegistry.get("azure.token.refresh").tag("outcome", "failure").timer().count());
+
+        failing.set(false);
+        assertEquals(55 * MINUTE, provider.refreshInBackground());
+        assertEquals("token-2", provider.getToken());
+    }
+
+    @Test
+    void getToken_WhenNoUsableTokenAndFetchFails_ShouldThrow() {
+        AzureTokenProvider provider = provider(credential);
+        provider.getToken();
+        clock.advance(Duration.ofMinutes(60));
+        failing.set(true);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, provider::getToken);
+        assertEquals("Entra ID unavailable", e.getCause().getMessage());
+    }
+
+    @Test
+    void backoff_ShouldGrowExponentiallyUpToTheMaximum() {
+        AzureTokenProvider provider = provider(credential);
+
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            long step = Math.min(MINUTE, 1_000L << Math.min(attempt - 1, 16));
+            long delay = provider.backoff(attempt);
+            assertTrue(delay >= step / 2 && delay <= step, "attempt " + attempt + ": " + delay);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.clevelanddx.packageintake.controller;
 
+import com.clevelanddx.packageintake.dto.BatchScanRequest;
+import com.clevelanddx.packageintake.dto.BatchScanResponse;
+import com.clevelanddx.packageintake.dto.BatchScanResult;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequest;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
 import com.clevelanddx.packageintake.model.InboundShipment;
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
 import com.clevelanddx.packageintake.service.InboundShipmentService;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -373,4 +378,106 @@ class InboundShipmentControllerTest {
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         verify(service).searchShipments(searchRequest);
     }
+
+    @Test
+    void updateScanTime_ShouldStampScanThroughService() {
+        // Given
+        LocalDateTime scanTime = LocalDateTime.of(2024, 3, 1, 9, 30);
+        when(service.stampScan(1L, scanTime, "TEST_USER", "SCAN123")).thenReturn(testShipment);
+
+        // When
+        ResponseEntity<InboundShipment> response = controller.updateScanTime(1L, scanTime, "TEST_USER", "SCAN123");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testShipment, response.getBody());
+        verify(service, never()).updateShipment(any(), any());
+    }
+
+    @Test
+    void updateScanTime_ShouldReturnNotFoundWhenNotExists() {
+        when(service.stampScan(99L, null, "TEST_USER", null)).thenThrow(new EntityNotFoundException("Shipment not found with id: 99"));
+
+        ResponseEntity<InboundShipment> response = controller.updateScanTime(99L, null, "TEST_USER", null);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void scanBatch_ShouldReturnPerItemResults() {
+        // Given
+        BatchScanRequest request = new BatchScanRequest(Arrays.asList("SCAN123", "UNKNOWN"), "TEST_USER", null);
+        BatchScanResponse batchResponse = BatchScanResponse.of(Arrays.asList(
+                BatchScanResult.matched("SCAN123", 1L, "TRACK123", false),
+                BatchScanResult.notFound("UNKNOWN")));
+        when(service.scanBatch(request)).thenReturn(batchResponse);
+
+        // When
+        ResponseEntity<BatchScanResponse> response = controller.scanBatch(request);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getMatched());
+        assertEquals(1, response.getBody().getNotFound());
+    }
+
+    @Test
+    void scanBatch_WithNoScannedNumbers_ShouldReturnBadRequest() {
+        ResponseEntity<BatchScanResponse> response = controller.scanBatch(new BatchScanRequest(Collections.emptyList(), "TEST_USER", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void getRecentShipments_WithFullPage_ShouldReturnNextCursorHeader() {
+        // Given
+        InboundShipment older = InboundShipment.builder().rowId(7L).build();
+        when(service.getRecentShipments(2, 12L)).thenReturn(Arrays.asList(testShipment, older));
+
+        // When
+        ResponseEntity<? extends List<?>> response = controller.getRecentShipments(2, 12L, "full");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst(InboundShipmentController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getRecentShipments_ByDefault_ShouldReturnListRows() {
+        // Given
+        ShipmentListRow row = new ShipmentListRow(9L, "TRACK123", "Test Client", "Pending", "Test Lab", null);
+        when(service.getRecentShipmentRows(10, null)).thenReturn(Arrays.asList(row));
+
+        // When
+        ResponseEntity<? extends List<?>> response = controller.getRecentShipments(10, null, "list");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(row), response.getBody());
+        verify(service, never()).getRecentShipments(anyInt());
+    }
+
+    @Test
+    void getShipmentsByDateRange_WithUnknownView_ShouldReturnBadRequest() {
+        // When
+        ResponseEntity<? extends List<?>> response = controller.getShipmentsByDateRange("2024-06-01", "2024-06-30", "compact");
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void getShipmentsByStatus_WithShortKeysetPage_ShouldOmitNextCursorHeader() {
+        // Given
+        when(service.getShipmentsByStatus("Pending", null, 100)).thenReturn(Arrays.asList(testShipment));
+
+        // When
+        ResponseEntity<List<InboundShipment>> response = controller.getShipmentsByStatus("Pending", null, 100);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(InboundShipmentController.NEXT_CURSOR_HEADER));
+    }
 }
@@ -0,0 +1,166 @@
+package com.clevelanddx.packageintake.repository;
+
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
+import com.clevelanddx.packageintake.model.InboundShipment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboundShipmentRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query selectQuery;
+
+    @Mock
+    private Query countQuery;
+
+    @InjectMocks
+    private InboundShipmentRepositoryImpl repositoryImpl;
+
+    @Test
+    void searchShipmentsV2WithLogging_ShouldReadOnlyRequestedPageWithTotalFromSameStatement() {
+        List<Object[]> rows = List.of(
+                new Object[] {new InboundShipment(), 45L},
+                new Object[] {new InboundShipment(), 45L});
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.WITH_TOTAL_COUNT))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(rows);
+
+        Page<InboundShipment> page = repositoryImpl.searchShipmentsV2WithLogging(
+                null, null, "RECEIVED", null, null, null, null,
+                null, null, null, null, null, null, null, null,
+                PageRequest.of(2, 2));
+
+        verify(selectQuery).setFirstResult(4);
+        verify(selectQuery).setMaxResults(2);
+        verify(selectQuery).setParameter("status", "RECEIVED");
+        verify(entityManager, never()).createNativeQuery(anyString());
+        assertEquals(2, page.getContent().size());
+        assertEquals(45, page.getTotalElements());
+        assertEquals(23, page.getTotalPages());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void search_WhenPageIsPastTheEnd_ShouldFallBackToCountQuery() {
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.WITH_TOTAL_COUNT))).thenReturn(selectQuery);
+        when(entityManager.createNativeQuery(startsWith("SELECT COUNT_BIG(*)"))).thenReturn(countQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of());
+        when(countQuery.getSingleResult()).thenReturn(21L);
+
+        Page<InboundShipment> page = repositoryImpl.search(
+                ShipmentSearchCriteria.builder().status("RECEIVED").build(), PageRequest.of(5, 20));
+
+        verify(countQuery).setParameter("status", "RECEIVED");
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(21, page.getTotalElements());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void search_WhenFirstPageIsEmpty_ShouldNotCount() {
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.WITH_TOTAL_COUNT))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of());
+
+        Page<InboundShipment> page = repositoryImpl.search(ShipmentSearchCriteria.builder().build(), PageRequest.of(0, 20));
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+        assertEquals(0, page.getTotalElements());
+    }
+
+    @Test
+    void search_ForListRows_ShouldSelectOnlyListColumns() {
+        ShipmentListRow row = new ShipmentListRow(3L, "TRACK", "Acme", "RECEIVED", "East", null);
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.LIST_ROW_WITH_TOTAL_COUNT))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.<Object[]>of(new Object[] {row, 1L}));
+
+        Page<ShipmentListRow> page = repositoryImpl.search(ShipmentSearchCriteria.builder().build(), PageRequest.of(0, 20), ShipmentListRow.class);
+
+        verify(entityManager).createNativeQuery(argThat((String sql) -> sql.contains("s.Lab AS lab") && !sql.contains("s.Weight")),
+                eq(InboundShipment.LIST_ROW_WITH_TOTAL_COUNT));
+        assertEquals(List.of(row), page.getContent());
+        assertEquals(1, page.getTotalElements());
+    }
+
+    @Test
+    void findRecentRows_ShouldSeekBelowCursor() {
+        when(entityManager.createNativeQuery(contains("s.Row_ID < :cursor"), eq(InboundShipment.LIST_ROW))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of());
+
+        repositoryImpl.findRecentRows(900L, 20000);
+
+        verify(selectQuery).setParameter("cursor", 900L);
+        verify(selectQuery).setParameter("limit", 20000);
+    }
+
+    @Test
+    void searchSlice_ShouldReadOneRowPastThePageAndNeverCount() {
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.class))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of(new InboundShipment(), new InboundShipment(), new InboundShipment()));
+
+        Slice<InboundShipment> slice = repositoryImpl.searchSlice(ShipmentSearchCriteria.builder().build(), PageRequest.of(1, 2));
+
+        verify(selectQuery).setFirstResult(2);
+        verify(selectQuery).setMaxResults(3);
+        verify(entityManager, never()).createNativeQuery(anyString());
+        assertEquals(2, slice.getContent().size());
+        assertTrue(slice.hasNext());
+    }
+
+    @Test
+    void countAtMost_ShouldBindCapAndFilters() {
+        when(entityManager.createNativeQuery(contains("TOP (:countCap)"))).thenReturn(countQuery);
+        when(countQuery.getSingleResult()).thenReturn(500L);
+
+        long count = repositoryImpl.countAtMost(ShipmentSearchCriteria.builder().lab("East").build(), 500);
+
+        verify(countQuery).setParameter("lab", "East");
+        verify(countQuery).setParameter("countCap", 500L);
+        assertEquals(500, count);
+    }
+
+    @Test
+    void stampScan_ShouldClearPersistenceContextBeforeReadingTheStampedRow() {
+        InboundShipment stored = new InboundShipment();
+        LocalDateTime scanTime = LocalDateTime.of(2024, 3, 1, 9, 30);
+        when(entityManager.createNativeQuery(contains("OUTPUT inserted.Row_ID"), eq(InboundShipment.class))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of(stored));
+
+        Optional<InboundShipment> stamped = repositoryImpl.stampScan(1L, scanTime, "TEST_USER", "SCAN123", scanTime);
+
+        InOrder inOrder = inOrder(entityManager, selectQuery);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(selectQuery).getResultList();
+        verify(selectQuery).setParameter("id", 1L);
+        verify(selectQuery).setParameter("scanUser", "TEST_USER");
+        assertSame(stored, stamped.orElseThrow());
+    }
+
+    @Test
+    void stampScan_WhenRowMissing_ShouldBeEmpty() {
+        when(entityManager.createNativeQuery(anyString(), eq(InboundShipment.class))).thenReturn(selectQuery);
+        when(selectQuery.getResultList()).thenReturn(List.of());
+
+        assertTrue(repositoryImpl.stampScan(99L, LocalDateTime.now(), null, null, LocalDateTime.now()).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package com.clevelanddx.packageintake.repository;
+
+import com.clevelanddx.packageintake.model.Client;
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.model.InboundShipmentReference;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the /recent query from InboundShipmentRepository against H2 in SQL Server mode and counts the
+// statements Hibernate prepares to materialize the rows and their client and shipment type. There are
+// more clients than one @BatchSize batch holds, so a large page must load them in ceil(n / 100) batches.
+class RecentShipmentsStatementCountTest {
+
+    private static final int CLIENTS = 250;
+    private static final int SHIPMENT_TYPES = 12;
+    private static final int BATCH_SIZE = 100;
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(InboundShipment.class)
+                .addAnnotatedClass(Client.class)
+                .addAnnotatedClass(InboundShipmentReference.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:recentStatements;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            List<Client> clients = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                Client client = new Client();
+                client.setClient("Client " + i);
+                session.persist(client);
+                clients.add(client);
+            }
+            List<InboundShipmentReference> types = new ArrayList<>();
+            for (int i = 0; i < SHIPMENT_TYPES; i++) {
+                InboundShipmentReference type = InboundShipmentReference.builder().type("ShipmentType").value("Type " + i).build();
+                session.persist(type);
+                types.add(type);
+            }
+            for (int i = 0; i < 1500; i++) {
+                InboundShipment shipment = new InboundShipment();
+                shipment.setTrackingNumber("TRACK" + i);
+                shipment.setClientEntity(clients.get(i % CLIENTS));
+                shipment.setShipmentType(types.get(i % SHIPMENT_TYPES));
+                session.persist(shipment);
+            }
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void findRecentShipments_ShouldLoadAssociationsInBatchesOfBatchSize() throws Exception {
+        // Rows, then one batch each for 10 clients and 10 shipment types
+        assertEquals(3, recentShipmentStatements(10));
+        // 1000 rows reference all 250 clients (3 batches) and all 12 shipment types (1 batch)
+        assertEquals(1 + batches(CLIENTS) + batches(SHIPMENT_TYPES), recentShipmentStatements(1000));
+    }
+
+    private static long batches(int entities) {
+        return (entities + BATCH_SIZE - 1) / BATCH_SIZE;
+    }
+
+    private long recentShipmentStatements(int limit) throws Exception {
+        String sql = InboundShipmentRepository.class.getMethod("findRecentShipments", int.class)
+                .getAnnotation(Query.class).value();
+        // Client and InboundShipmentReference are second-level cached; each count starts cold
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        try (Session session = sessionFactory.openSession()) {
+            List<InboundShipment> shipments = session.createNativeQuery(sql, InboundShipment.class)
+                    .setParameter("limit", limit)
+                    .getResultList();
+
+            assertEquals(limit, shipments.size());
+            shipments.forEach(shipment -> {
+                assertNotNull(shipment.getClientEntity().getClient());
+                assertNotNull(shipment.getShipmentType().getValue());
+            });
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
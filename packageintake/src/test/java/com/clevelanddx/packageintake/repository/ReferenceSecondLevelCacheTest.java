@@ -0,0 +1,87 @@
+package com.clevelanddx.packageintake.repository;
+
+import com.clevelanddx.packageintake.model.Client;
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.model.InboundShipmentReference;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Second-level and query cache for reference data with the same JCache/Caffeine settings as
+// application.properties, on H2
+class ReferenceSecondLevelCacheTest {
+
+    private static SessionFactory sessionFactory;
+    private static Long referenceId;
+
+    @BeforeAll
+    static void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(InboundShipment.class)
+                .addAnnotatedClass(Client.class)
+                .addAnnotatedClass(InboundShipmentReference.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:referenceCache;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.generate_statistics", "true")
+                .setProperty("hibernate.cache.use_second_level_cache", "true")
+                .setProperty("hibernate.cache.use_query_cache", "true")
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "create")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            InboundShipmentReference reference = InboundShipmentReference.builder()
+                    .type("ShipmentType").value("Dry Ice").description("Frozen").build();
+            session.persist(reference);
+            referenceId = reference.getRowId();
+        });
+    }
+
+    @AfterAll
+    static void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void lookups_ShouldBeServedFromCacheUntilAWriteInvalidatesThem() {
+        Statistics statistics = sessionFactory.getStatistics();
+        findByTypeAndValue("ShipmentType", "Dry Ice");
+        statistics.clear();
+
+        assertEquals("Frozen", findByTypeAndValue("ShipmentType", "Dry Ice").getDescription());
+        try (Session session = sessionFactory.openSession()) {
+            assertEquals("Frozen", session.find(InboundShipmentReference.class, referenceId).getDescription());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(InboundShipmentReference.QUERY_CACHE_REGION).getHitCount());
+
+        sessionFactory.inTransaction(session ->
+                session.find(InboundShipmentReference.class, referenceId).setDescription("Frozen, dry ice"));
+        statistics.clear();
+
+        assertEquals("Frozen, dry ice", findByTypeAndValue("ShipmentType", "Dry Ice").getDescription());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // Same query and hints as InboundShipmentReferenceRepository.findByTypeAndValue
+    private static InboundShipmentReference findByTypeAndValue(String type, String value) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery(
+                            "from InboundShipmentReference r where r.type = :type and r.value = :value", InboundShipmentReference.class)
+                    .setParameter("type", type)
+                    .setParameter("value", value)
+                    .setCacheable(true)
+                    .setCacheRegion(InboundShipmentReference.QUERY_CACHE_REGION)
+                    .getSingleResult();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.clevelanddx.packageintake.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipmentSearchQueryBuilderTest {
+
+    @Test
+    void template_WithNoFilters_ShouldHaveNoWhereClause() {
+        ShipmentSearchQueryBuilder.Template template = ShipmentSearchQueryBuilder.template(
+                ShipmentSearchQueryBuilder.shape(ShipmentSearchCriteria.builder().build()));
+
+        assertFalse(template.select().contains("WHERE"));
+        assertFalse(template.select().contains("IS NULL"));
+        assertTrue(template.select().endsWith("ORDER BY s.Row_ID DESC"));
+        assertFalse(template.count().contains("ORDER BY"));
+    }
+
+    @Test
+    void template_ShouldOnlyContainSuppliedPredicates() {
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+                .trackingNumber("TRACK")
+                .clientName("acme")
+                .shipDateFrom(LocalDate.of(2024, 6, 1))
+                .build();
+
+        String sql = ShipmentSearchQueryBuilder.template(ShipmentSearchQueryBuilder.shape(criteria)).select();
+
+        assertTrue(sql.contains(":trackingNumber"));
+        assertTrue(sql.contains(":clientName"));
+        assertTrue(sql.contains(":shipDateFrom"));
+        assertFalse(sql.contains(":scannedNumber"));
+        assertFalse(sql.contains(":shipDateTo"));
+        assertFalse(sql.contains("IS NULL"));
+    }
+
+    @Test
+    void template_CountVariants_ShouldShareTheFilters() {
+        ShipmentSearchQueryBuilder.Template template = ShipmentSearchQueryBuilder.template(
+                ShipmentSearchQueryBuilder.shape(ShipmentSearchCriteria.builder().status("RECEIVED").build()));
+
+        assertTrue(template.selectWithTotal().contains("COUNT_BIG(*) OVER () AS Total_Count"));
+        assertTrue(template.selectWithTotal().contains(":status"));
+        assertTrue(template.selectWithTotal().endsWith("ORDER BY s.Row_ID DESC"));
+        assertTrue(template.countAtMost().contains("TOP (:countCap)"));
+        assertTrue(template.countAtMost().contains(":status"));
+        assertFalse(template.countAtMost().contains("ORDER BY"));
+        assertTrue(template.selectRows().startsWith("SELECT " + ShipmentSearchQueryBuilder.ROW_COLUMNS));
+        assertTrue(template.selectRowsWithTotal().contains(":status"));
+        assertTrue(template.selectRowsWithTotal().contains("AS Total_Count"));
+    }
+
+    @Test
+    void template_ShouldBeCachedPerFilterShape() {
+        ShipmentSearchCriteria first = ShipmentSearchCriteria.builder().status("Pending").lab("East").build();
+        ShipmentSearchCriteria second = ShipmentSearchCriteria.builder().status("Received").lab("West").build();
+        ShipmentSearchCriteria other = ShipmentSearchCriteria.builder().status("Received").build();
+
+        int shape = ShipmentSearchQueryBuilder.shape(first);
+
+        assertEquals(shape, ShipmentSearchQueryBuilder.shape(second));
+        assertNotEquals(shape, ShipmentSearchQueryBuilder.shape(other));
+        assertSame(ShipmentSearchQueryBuilder.template(shape), ShipmentSearchQueryBuilder.template(ShipmentSearchQueryBuilder.shape(second)));
+    }
+
+    @Test
+    void template_WithCursor_ShouldSeekBelowRowId() {
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+                .status("RECEIVED")
+                .afterRowId(1000L)
+                .build();
+
+        String sql = ShipmentSearchQueryBuilder.template(ShipmentSearchQueryBuilder.shape(criteria)).select();
+
+        assertTrue(sql.contains("s.Row_ID < :afterRowId"));
+        assertTrue(sql.endsWith("ORDER BY s.Row_ID DESC"));
+    }
+
+    @Test
+    void template_DateFilters_ShouldCompareColumnsWithHalfOpenRanges() {
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+                .scanDateFrom(LocalDate.of(2024, 6, 1))
+                .scanDateTo(LocalDate.of(2024, 6, 7))
+                .emailReceiveDatetimeTo(LocalDate.of(2024, 6, 7))
+                .lastUpdateDatetimeFrom(LocalDate.of(2024, 6, 1))
+                .build();
+
+        String sql = ShipmentSearchQueryBuilder.template(ShipmentSearchQueryBuilder.shape(criteria)).select();
+
+        assertTrue(sql.contains("s.Scan_Time >= :scanDateFrom"));
+        assertTrue(sql.contains("s.Scan_Time < DATEADD(day, 1, :scanDateTo)"));
+        assertTrue(sql.contains("s.Email_Receive_Datetime < DATEADD(day, 1, :emailReceiveDatetimeTo)"));
+        assertTrue(sql.contains("s.Last_Update_Datetime >= :lastUpdateDatetimeFrom"));
+        assertFalse(sql.contains("CAST("));
+    }
+
+    @Test
+    void template_WithLongEnoughTerm_ShouldNarrowByTrigrams() {
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder()
+                .trackingNumber("1Z999")
+                .orderNumber("OR")
+                .build();
+
+        String sql = ShipmentSearchQueryBuilder.template(ShipmentSearchQueryBuilder.shape(criteria)).select();
+
+        assertTrue(sql.contains("g.Field = " + ShipmentSearchQueryBuilder.NGRAM_TRACKING_NUMBER));
+        assertTrue(sql.contains("OPENJSON(:trackingNumberGrams)"));
+        assertTrue(sql.contains("s.Tracking_Number LIKE CONCAT('%', :trackingNumber, '%')"));
+        assertFalse(sql.contains(":orderNumberGrams"));
+    }
+
+    @Test
+    void trigrams_ShouldBeDistinctAndCaseInsensitive() {
+        assertEquals("[\"ABA\",\"BAB\"]", ShipmentSearchQueryBuilder.trigrams(" abAbA "));
+        assertEquals("[\"1Z9\",\"Z99\",\"999\"]", ShipmentSearchQueryBuilder.trigrams("1z999"));
+    }
+
+    @Test
+    void trigrams_WhenTermCannotBeNarrowed_ShouldReturnNull() {
+        assertNull(ShipmentSearchQueryBuilder.trigrams(null));
+        assertNull(ShipmentSearchQueryBuilder.trigrams(" 1Z "));
+        assertNull(ShipmentSearchQueryBuilder.trigrams("1Z_99"));
+        assertNull(ShipmentSearchQueryBuilder.trigrams("100%"));
+    }
+}
@@ -11,9 +11,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -97,4 +102,130 @@ class ClientCacheServiceTest {
 
         verify(repository, times(2)).findAll();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void put_ShouldApplyDeltaWithoutReloading() {
+        Client other = new Client();
+        other.setId(2L);
+        other.setClient("Acme");
+        when(repository.findAll()).thenReturn(Arrays.asList(testClient));
+        cacheService.getAllClients();
+
+        cacheService.put(other);
+        testClient.setClient("Zenith Labs");
+        cacheService.put(testClient);
+        cacheService.remove(2L);
+        cacheService.put(other);
+
+        List<ClientDTO> clients = cacheService.getAllClients();
+        assertEquals(List.of("Acme", "Zenith Labs"), clients.stream().map(ClientDTO::getClient).toList());
+        assertEquals(2L, cacheService.getClientByName("Acme").orElseThrow().getId());
+        assertTrue(cacheService.getClientByName("Test Client").isEmpty());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void getAllClientEntities_ShouldReturnSameInstancesUntilNextWrite() {
+        when(repository.findAll()).thenReturn(Arrays.asList(testClient));
+
+        List<Client> first = cacheService.getAllClientEntities();
+
+        assertSame(first, cacheService.getAllClientEntities());
+        assertEquals("Test Client", first.get(0).getClient());
+    }
+
+    @Test
+    void getAllClients_WhenReadersArriveTogether_ShouldLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findAll()).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Arrays.asList(testClient);
+        });
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ClientDTO>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(readers.submit(cacheService::getAllClients));
+            }
+            loading.await();
+            release.countDown();
+            for (Future<List<ClientDTO>> result : results) {
+                assertEquals(1, result.get().size());
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void search_ShouldRankFromSnapshotAndFollowDeltas() {
+        Client acme = new Client();
+        acme.setId(2L);
+        acme.setClient("Acme Test Labs");
+        Client tester = new Client();
+        tester.setId(3L);
+        tester.setClient("Testers Inc");
+        when(repository.findAll()).thenReturn(Arrays.asList(acme, testClient, tester));
+
+        assertEquals(List.of("Test Client", "Testers Inc", "Acme Test Labs"),
+                cacheService.search("TEST", 0).stream().map(Client::getClient).toList());
+        assertEquals(List.of("Test Client"),
+                cacheService.search("test", 1).stream().map(Client::getClient).toList());
+
+        cacheService.remove(1L);
+
+        assertEquals(List.of("Testers Inc", "Acme Test Labs"),
+                cacheService.search("test", 0).stream().map(Client::getClient).toList());
+        verify(repository, times(1)).findAll();
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void catchUp_ShouldAddClientsInsertedOutsideTheService() {
+        Client inserted = new Client();
+        inserted.setId(7L);
+        inserted.setClient("Testing Newcomer");
+        when(repository.findAll()).thenReturn(Arrays.asList(testClient));
+        when(repository.findByIdGreaterThanOrderByIdAsc(1L)).thenReturn(List.of(inserted));
+        when(repository.findByIdGreaterThanOrderByIdAsc(7L)).thenReturn(List.of());
+
+        assertEquals(1, cacheService.search("test", 0).size());
+        cacheService.catchUp();
+        cacheService.catchUp();
+
+        assertEquals(List.of("Test Client", "Testing Newcomer"),
+                cacheService.search("test", 0).stream().map(Client::getClient).toList());
+        assertEquals("Testing Newcomer", cacheService.getClientById(7L).orElseThrow().getClient());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void catchUp_BeforeFirstLoad_ShouldNotQuery() {
+        cacheService.catchUp();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void catchUp_AfterPutOfHigherId_ShouldStillFindLowerTriggerInserts() {
+        Client created = new Client();
+        created.setId(50L);
+        created.setClient("Created Here");
+        Client inserted = new Client();
+        inserted.setId(20L);
+        inserted.setClient("Inserted By Trigger");
+        when(repository.findAll()).thenReturn(Arrays.asList(testClient));
+        when(repository.findByIdGreaterThanOrderByIdAsc(1L)).thenReturn(List.of(inserted, created));
+
+        cacheService.getAllClients();
+        cacheService.put(created);
+        cacheService.catchUp();
+
+        assertEquals(List.of("Created Here", "Inserted By Trigger", "Test Client"),
+                cacheService.getAllClients().stream().map(ClientDTO::getClient).toList());
+        verify(repository).findByIdGreaterThanOrderByIdAsc(1L);
+    }
+}
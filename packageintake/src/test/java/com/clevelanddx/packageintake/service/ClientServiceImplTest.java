@@ -14,6 +14,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class ClientServiceImplTest {
@@ -42,14 +43,15 @@ public class ClientServiceImplTest {
             createTestClient(1L, "test1"),
             createTestClient(2L, "test2")
         );
-        when(clientRepository.searchByClient(searchTerm)).thenReturn(expectedClients);
+        when(clientCacheService.search(searchTerm, 10)).thenReturn(expectedClients);
 
         // When
-        List<Client> result = clientService.searchClients(searchTerm);
+        List<Client> result = clientService.searchClients(searchTerm, 10);
 
         // Then
         assertEquals(expectedClients, result);
-        verify(clientRepository).searchByClient(searchTerm);
+        verify(clientCacheService).search(searchTerm, 10);
+        verifyNoInteractions(clientRepository);
     }
 
     @Test
@@ -60,13 +62,14 @@ public class ClientServiceImplTest {
             createTestClient(1L, "test1"),
             createTestClient(2L, "test2")
         );
-        when(clientRepository.searchClientByPartial(searchTerm)).thenReturn(expectedClients);
+        when(clientCacheService.search(searchTerm, 0)).thenReturn(expectedClients);
 
         // When
-        List<Client> result = clientService.searchClientByPartial(searchTerm);
+        List<Client> result = clientService.searchClientByPartial(searchTerm, 0);
 
         // Then
         assertEquals(expectedClients, result);
-        verify(clientRepository).searchClientByPartial(searchTerm);
+        verify(clientCacheService).search(searchTerm, 0);
+        verifyNoInteractions(clientRepository);
     }
 } 
\ No newline at end of file
@@ -51,18 +51,19 @@ class ClientServiceTest {
     }
 
     @Test
-    void create_ShouldClearCacheAndReturnSavedClient() {
+    void create_ShouldAddToCacheAndReturnSavedClient() {
         when(repository.save(any(Client.class))).thenReturn(testClient);
 
         Client result = service.create(testClient);
 
         assertNotNull(result);
         assertEquals(testClient.getClient(), result.getClient());
-        verify(cacheService).clearCache();
+        verify(cacheService).put(testClient);
+        verify(cacheService, never()).clearCache();
     }
 
     @Test
-    void update_WhenExists_ShouldClearCacheAndReturnUpdatedClient() {
+    void update_WhenExists_ShouldReplaceInCacheAndReturnUpdatedClient() {
         when(repository.findById(1L)).thenReturn(Optional.of(testClient));
         when(repository.save(any(Client.class))).thenReturn(testClient);
 
@@ -70,7 +71,8 @@ class ClientServiceTest {
 
         assertNotNull(result);
         assertEquals(testClient.getClient(), result.getClient());
-        verify(cacheService).clearCache();
+        verify(cacheService).put(testClient);
+        verify(cacheService, never()).clearCache();
     }
 
     @Test
@@ -78,16 +80,18 @@ class ClientServiceTest {
         when(repository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> service.update(1L, testClient));
+        verify(cacheService, never()).put(any());
         verify(cacheService, never()).clearCache();
     }
 
     @Test
-    void delete_WhenExists_ShouldClearCache() {
+    void delete_WhenExists_ShouldRemoveFromCache() {
         when(repository.existsById(1L)).thenReturn(true);
 
         assertDoesNotThrow(() -> service.delete(1L));
         verify(repository).deleteById(1L);
-        verify(cacheService).clearCache();
+        verify(cacheService).remove(1L);
+        verify(cacheService, never()).clearCache();
     }
 
     @Test
@@ -95,7 +99,7 @@ class ClientServiceTest {
         when(repository.existsById(1L)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> service.delete(1L));
-        verify(cacheService, never()).clearCache();
+        verify(cacheService, never()).remove(any());
     }
 
     @Test
@@ -111,14 +115,14 @@ class ClientServiceTest {
 
     @Test
     void findAll_ShouldUseCache() {
-        when(cacheService.getAllClients()).thenReturn(Arrays.asList(testClientDTO));
+        when(cacheService.getAllClientEntities()).thenReturn(Arrays.asList(testClient));
 
         List<Client> result = service.findAll();
 
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
         assertEquals(testClient.getClient(), result.get(0).getClient());
-        verify(cacheService).getAllClients();
+        verify(cacheService).getAllClientEntities();
     }
 
     @Test
@@ -9,12 +9,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +26,9 @@ class InboundShipmentReferenceServiceTest {
     @Mock
     private InboundShipmentReferenceRepository repository;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private InboundShipmentReferenceServiceImpl service;
 
@@ -63,14 +69,14 @@ class InboundShipmentReferenceServiceTest {
     void getReferencesByType_ShouldReturnReferencesByType() {
         // Given
         String type = "SHIPPING_TYPE";
-        when(repository.findByType(type)).thenReturn(Arrays.asList(reference1, reference2));
+        when(repository.findAll()).thenReturn(Arrays.asList(reference1, reference2));
 
         // When
         List<InboundShipmentReference> result = service.getReferencesByType(type);
 
         // Then
         assertEquals(2, result.size());
-        verify(repository).findByType(type);
+        verify(repository, never()).findByType(type);
     }
 
     @Test
@@ -101,4 +107,87 @@ class InboundShipmentReferenceServiceTest {
         assertFalse(result.isPresent());
         verify(repository).findById(id);
     }
+
+    @Test
+    void findByTypeAndValue_ShouldBeServedFromRegistryIgnoringCase() {
+        // Given
+        when(repository.findAll()).thenReturn(Arrays.asList(reference1, reference2));
+
+        // When
+        Optional<InboundShipmentReference> first = service.findByTypeAndValue("SHIPPING_TYPE", "Dry Ice");
+        Optional<InboundShipmentReference> second = service.findByTypeAndValue("shipping_type", "DRY ICE");
+
+        // Then
+        assertEquals(reference1, first.orElseThrow());
+        assertEquals(reference1, second.orElseThrow());
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).findByTypeAndValue(anyString(), anyString());
+    }
+
+    @Test
+    void findByTypeAndValue_ShouldHandOutCopiesThatDoNotChangeTheRegistry() {
+        // Given
+        when(repository.findAll()).thenReturn(Arrays.asList(reference1, reference2));
+
+        // When
+        InboundShipmentReference first = service.findByTypeAndValue("SHIPPING_TYPE", "Dry Ice").orElseThrow();
+        first.setDescription("changed by a caller");
+        service.getAllReferences().get(0).setValue("also changed");
+
+        // Then
+        InboundShipmentReference second = service.findByTypeAndValue("SHIPPING_TYPE", "Dry Ice").orElseThrow();
+        assertNotSame(first, second);
+        assertNotSame(reference1, second);
+        assertEquals(reference1.getDescription(), second.getDescription());
+        assertEquals(reference1.getValue(), service.getReferenceById(reference1.getRowId()).orElseThrow().getValue());
+    }
+
+    @Test
+    void createReference_ShouldBeVisibleToLaterReadsWithoutReload() {
+        // Given
+        InboundShipmentReference courier = InboundShipmentReference.builder().rowId(3L).type("SHIPPING_TYPE").value("Courier").build();
+        when(repository.findAll()).thenReturn(Arrays.asList(reference1, reference2));
+        when(repository.save(courier)).thenReturn(courier);
+
+        // When
+        service.createReference(courier);
+
+        // Then
+        assertEquals(courier, service.getReferenceById(3L).orElseThrow());
+        assertEquals(3, service.getReferencesByType("SHIPPING_TYPE").size());
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    void deleteReference_ShouldDropItFromRegistry() {
+        // Given
+        when(repository.findAll()).thenReturn(Arrays.asList(reference1, reference2));
+        when(repository.existsById(2L)).thenReturn(true);
+        service.getAllReferences();
+
+        // When
+        service.deleteReference(2L);
+
+        // Then
+        assertEquals(List.of(reference1), service.getAllReferences());
+    }
+
+    @Test
+    void findOrCreateReference_WhenAnotherWriterInsertsFirst_ShouldReturnTheirRow() {
+        // Given
+        InboundShipmentReference theirs = InboundShipmentReference.builder().rowId(7L).type("SHIPPING_TYPE").value("Courier").build();
+        when(repository.findByTypeAndValue("SHIPPING_TYPE", "Courier"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(theirs));
+        when(repository.save(any(InboundShipmentReference.class)))
+                .thenThrow(new DataIntegrityViolationException("UX_Inbound_Shipments_Reference_Type_Value"));
+
+        // When
+        InboundShipmentReference result = service.findOrCreateReference("SHIPPING_TYPE", "Courier", null);
+
+        // Then
+        assertSame(theirs, result);
+        assertEquals(theirs, service.findByTypeAndValue("SHIPPING_TYPE", "Courier").orElseThrow());
+        verify(repository, times(2)).findByTypeAndValue("SHIPPING_TYPE", "Courier");
+    }
 }
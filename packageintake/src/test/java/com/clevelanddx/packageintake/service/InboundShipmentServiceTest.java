@@ -1,34 +1,55 @@
 package com.clevelanddx.packageintake.service;
 
+import com.clevelanddx.packageintake.dto.BatchScanRequest;
+import com.clevelanddx.packageintake.dto.BatchScanResponse;
+import com.clevelanddx.packageintake.dto.BatchScanResult;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchRequest;
 import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.ShipmentListRow;
+import com.clevelanddx.packageintake.dto.ShipmentView;
 import com.clevelanddx.packageintake.model.InboundShipment;
 import com.clevelanddx.packageintake.model.Client;
 import com.clevelanddx.packageintake.model.InboundShipmentReference;
 import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepositoryImpl;
+import com.clevelanddx.packageintake.repository.InboundShipmentScanMatch;
+import com.clevelanddx.packageintake.repository.ShipmentSearchCriteria;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecoderPipeline;
+import com.clevelanddx.packageintake.service.barcode.FedExBarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.Gs1BarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.UpsBarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.UspsBarcodeDecoder;
+import com.clevelanddx.packageintake.service.index.DistinctShipmentValues;
+import com.clevelanddx.packageintake.service.index.ScanNegativeCache;
+import com.clevelanddx.packageintake.service.index.TrackingNumberIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,9 +58,28 @@ class InboundShipmentServiceTest {
     @Mock
     private InboundShipmentRepository repository;
 
+    @Mock
+    private InboundShipmentRepositoryImpl repositoryImpl;
+
     @Mock
     private InboundShipmentReferenceService referenceService;
 
+    @Mock
+    private TrackingNumberIndex trackingNumberIndex;
+
+    @Mock
+    private DistinctShipmentValues distinctValues;
+
+    @Spy
+    private BarcodeDecoderPipeline barcodeDecoderPipeline = new BarcodeDecoderPipeline(Arrays.asList(
+            new UpsBarcodeDecoder(), new UspsBarcodeDecoder(), new FedExBarcodeDecoder(), new Gs1BarcodeDecoder()));
+
+    @Spy
+    private ScanNegativeCache scanNegativeCache = new ScanNegativeCache(60000, 100, 0.01);
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(60000, 100);
+
     @InjectMocks
     private InboundShipmentServiceImpl service;
 
@@ -244,6 +284,32 @@ class InboundShipmentServiceTest {
         verify(repository).save(any(InboundShipment.class));
     }
 
+    @Test
+    void updateShipment_OnScannedRow_ShouldRecordTheStoredScanUserNotTheRequestedOne() {
+        InboundShipment existing = InboundShipment.builder().rowId(1L).scanUser("first.scanner").status("Pending").build();
+        InboundShipment update = InboundShipment.builder().scanUser("someone.else").status("Received").build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.save(any(InboundShipment.class))).thenReturn(update);
+
+        service.updateShipment(1L, update);
+
+        verify(distinctValues).recordScanUser("first.scanner");
+        verify(distinctValues, never()).recordScanUser("someone.else");
+        verify(distinctValues).recordStatus("Received");
+    }
+
+    @Test
+    void updateShipment_OnUnscannedRow_ShouldRecordTheRequestedScanUser() {
+        InboundShipment existing = InboundShipment.builder().rowId(1L).status("Pending").build();
+        InboundShipment update = InboundShipment.builder().scanUser("new.scanner").status("Pending").build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.save(any(InboundShipment.class))).thenReturn(update);
+
+        service.updateShipment(1L, update);
+
+        verify(distinctValues).recordScanUser("new.scanner");
+    }
+
     @Test
     void updateShipment_WithShipmentTypeId_ShouldFindExistingReference() {
         when(repository.findById(1L)).thenReturn(Optional.of(testShipment));
@@ -458,6 +524,186 @@ class InboundShipmentServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getShipmentByTrackingNumberInScannedNumber_WhenIndexHit_ShouldSkipSubstringQuery() {
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(trackingNumberIndex.findRowIds("420441139612TRACK123")).thenReturn(Arrays.asList(1L));
+        when(repository.findById(1L)).thenReturn(Optional.of(testShipment));
+
+        Optional<InboundShipment> result = service.getShipmentByTrackingNumberInScannedNumber("420441139612TRACK123");
+
+        assertTrue(result.isPresent());
+        assertEquals(testShipment, result.get());
+        verify(repository, never()).findFirstByTrackingNumberInScannedNumber(any());
+    }
+
+    @Test
+    void getShipmentByTrackingNumberInScannedNumber_WhenIndexMiss_ShouldFallBackToQuery() {
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(trackingNumberIndex.findRowIds("420441139612TRACK999")).thenReturn(Collections.emptyList());
+        when(repository.findFirstByTrackingNumberInScannedNumber("420441139612TRACK999"))
+                .thenReturn(Optional.of(testShipment));
+
+        Optional<InboundShipment> result = service.getShipmentByTrackingNumberInScannedNumber("420441139612TRACK999");
+
+        assertTrue(result.isPresent());
+        verify(repository).findFirstByTrackingNumberInScannedNumber("420441139612TRACK999");
+    }
+
+    @Test
+    void getShipmentByTrackingNumberInScannedNumber_WhenRepeatedMiss_ShouldQueryOnce() {
+        when(repository.findFirstByTrackingNumberInScannedNumber("OUTBOUND-LABEL-000042"))
+                .thenReturn(Optional.empty());
+
+        assertTrue(service.getShipmentByTrackingNumberInScannedNumber("OUTBOUND-LABEL-000042").isEmpty());
+        assertTrue(service.getShipmentByTrackingNumberInScannedNumber("OUTBOUND-LABEL-000042").isEmpty());
+        assertTrue(service.getAllShipmentsByTrackingNumberInScannedNumber("outbound-label-000042").isEmpty());
+
+        verify(repository, times(1)).findFirstByTrackingNumberInScannedNumber("OUTBOUND-LABEL-000042");
+        verify(repository, never()).findAllByTrackingNumberInScannedNumber(any());
+    }
+
+    @Test
+    void getAllShipmentsByTrackingNumberInScannedNumber_WhenIndexHit_ShouldReturnHighestIdFirst() {
+        List<InboundShipment> shipments = Arrays.asList(
+            InboundShipment.builder().rowId(1L).trackingNumber("TRACK123").build(),
+            InboundShipment.builder().rowId(2L).trackingNumber("TRACK123").build()
+        );
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(trackingNumberIndex.findRowIds("420441139612TRACK123")).thenReturn(Arrays.asList(2L, 1L));
+        when(repository.findAllById(Arrays.asList(2L, 1L))).thenReturn(new java.util.ArrayList<>(shipments));
+
+        List<InboundShipment> result = service.getAllShipmentsByTrackingNumberInScannedNumber("420441139612TRACK123");
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getRowId());
+        verify(repository, never()).findAllByTrackingNumberInScannedNumber(any());
+    }
+
+    @Test
+    void createShipment_ShouldIndexSavedShipment() {
+        when(repository.save(any(InboundShipment.class))).thenReturn(testShipment);
+
+        service.createShipment(testShipment);
+
+        verify(trackingNumberIndex).index(testShipment);
+        verify(distinctValues).record(testShipment);
+    }
+
+    @Test
+    void getDistinctScanUsers_ShouldComeFromMemoryWithoutQuerying() {
+        when(distinctValues.scanUsers()).thenReturn(List.of("ALICE", "bob"));
+
+        assertEquals(List.of("ALICE", "bob"), service.getDistinctScanUsers());
+        verify(repository, never()).findDistinctScanUsers();
+    }
+
+    @Test
+    void getShipmentByTrackingNumberInScannedNumber_WhenCheckDigitInvalid_ShouldFallBackToSubstringLookup() {
+        when(repository.findFirstByTrackingNumberInScannedNumber("1Z999AA10123456785")).thenReturn(Optional.of(testShipment));
+
+        Optional<InboundShipment> result = service.getShipmentByTrackingNumberInScannedNumber("1Z999AA10123456785");
+
+        assertTrue(result.isPresent());
+        verify(repository, never()).findFirstByScannedNumberOrTrackingNumberIn(any(), any());
+    }
+
+    @Test
+    void getShipmentByTrackingNumberInScannedNumber_WhenDecoded_ShouldUseEqualityQuery() {
+        when(repository.findFirstByScannedNumberOrTrackingNumberIn("1Z999AA10123456784", List.of("1Z999AA10123456784")))
+                .thenReturn(Optional.of(testShipment));
+
+        Optional<InboundShipment> result = service.getShipmentByTrackingNumberInScannedNumber("1Z999AA10123456784");
+
+        assertTrue(result.isPresent());
+        verify(repository, never()).findFirstByTrackingNumberInScannedNumber(any());
+    }
+
+    @Test
+    void getAllShipmentsByTrackingNumberInScannedNumber_WhenDecodedAndIndexed_ShouldMatchTrackingNumberExactly() {
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(trackingNumberIndex.findRowIdsByScannedNumber("1Z999AA10123456784")).thenReturn(Collections.emptyList());
+        when(trackingNumberIndex.findRowIdsByTrackingNumbers(List.of("1Z999AA10123456784"))).thenReturn(Arrays.asList(1L));
+        when(repository.findAllById(Arrays.asList(1L))).thenReturn(new java.util.ArrayList<>(List.of(testShipment)));
+
+        List<InboundShipment> result = service.getAllShipmentsByTrackingNumberInScannedNumber("1Z999AA10123456784");
+
+        assertEquals(1, result.size());
+        verify(trackingNumberIndex, never()).findRowIds(any());
+        verify(repository, never()).findAllByScannedNumberOrTrackingNumberIn(any(), any());
+    }
+
+    @Test
+    void scanBatch_ShouldResolveInOneQueryAndStampOnlyUnambiguousMatches() {
+        BatchScanRequest request = new BatchScanRequest(
+                Arrays.asList("420441139612TRACK123", "1Z999AA10123456785", "420441139612SHARED01", "NOTHING-HERE-01"),
+                "TEST_USER", LocalDateTime.of(2024, 3, 1, 9, 30));
+        when(repository.findScanMatches(anyString())).thenReturn(Arrays.asList(
+                scanMatch(0, 1L, "TRACK123", null),
+                scanMatch(2, 7L, "SHARED01", null),
+                scanMatch(2, 6L, "SHARED01", null)));
+
+        BatchScanResponse response = service.scanBatch(request);
+
+        assertEquals(4, response.getResults().size());
+        assertEquals(BatchScanResult.Outcome.MATCHED, response.getResults().get(0).getOutcome());
+        assertEquals(1L, response.getResults().get(0).getRowId());
+        assertEquals(BatchScanResult.Outcome.NOT_FOUND, response.getResults().get(1).getOutcome());
+        assertEquals(BatchScanResult.Outcome.AMBIGUOUS, response.getResults().get(2).getOutcome());
+        assertEquals(Arrays.asList(7L, 6L), response.getResults().get(2).getCandidateRowIds());
+        assertEquals(BatchScanResult.Outcome.NOT_FOUND, response.getResults().get(3).getOutcome());
+
+        // The malformed UPS barcode is still looked up, by substring only
+        verify(repository).findScanMatches(argThat(json -> json.contains("{\"s\":\"1Z999AA10123456785\"}")));
+        verify(repository).stampScans(eq("[{\"r\":1,\"s\":\"420441139612TRACK123\"}]"),
+                eq(LocalDateTime.of(2024, 3, 1, 9, 30)), eq("TEST_USER"), any(LocalDateTime.class));
+        verify(trackingNumberIndex).index(1L, "TRACK123", "420441139612TRACK123");
+        verify(distinctValues).recordScanUser("TEST_USER");
+    }
+
+    @Test
+    void scanBatch_WhenMatchWasAlreadyScanned_ShouldNotRecordScanUser() {
+        when(repository.findScanMatches(anyString())).thenReturn(Arrays.asList(
+                scanMatch(0, 1L, "TRACK123", LocalDateTime.of(2024, 2, 1, 8, 0))));
+
+        service.scanBatch(new BatchScanRequest(Arrays.asList("420441139612TRACK123"), "OTHER_USER", null));
+
+        verify(repository).stampScans(anyString(), any(), eq("OTHER_USER"), any());
+        verify(distinctValues, never()).recordScanUser(any());
+    }
+
+    @Test
+    void scanBatch_WhenNothingMatches_ShouldNotStamp() {
+        when(repository.findScanMatches(anyString())).thenReturn(Collections.emptyList());
+
+        BatchScanResponse response = service.scanBatch(new BatchScanRequest(Arrays.asList("NOTHING-HERE-01"), "TEST_USER", null));
+
+        assertEquals(1, response.getNotFound());
+        verify(repository, never()).stampScans(any(), any(), any(), any());
+    }
+
+    @Test
+    void stampScan_ShouldStampInOneStatementWithoutLoadingEntity() {
+        LocalDateTime scanTime = LocalDateTime.of(2024, 3, 1, 9, 30);
+        when(repositoryImpl.stampScan(eq(1L), eq(scanTime), eq("TEST_USER"), eq("SCAN123"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(testShipment));
+
+        InboundShipment result = service.stampScan(1L, scanTime, "TEST_USER", "SCAN123");
+
+        assertEquals(testShipment, result);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+        verify(trackingNumberIndex).index(testShipment);
+    }
+
+    @Test
+    void stampScan_WhenNotExists_ShouldThrowException() {
+        when(repositoryImpl.stampScan(eq(99L), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> service.stampScan(99L, null, "TEST_USER", "SCAN123"));
+        verifyNoInteractions(trackingNumberIndex);
+    }
+
     @Test
     void updateScanTime_ShouldUpdateShipment() {
         // ... existing code ...
@@ -587,18 +833,20 @@ class InboundShipmentServiceTest {
                 .lastUpdateDatetimeTo(LocalDate.of(2024, 12, 31))
                 .page(0)
                 .size(20)
+                .view(ShipmentView.FULL)
                 .build();
 
         List<InboundShipment> shipments = Arrays.asList(testShipment);
         Page<InboundShipment> page = new PageImpl<>(shipments, PageRequest.of(0, 20), 1);
         
-        when(repository.searchShipments(
-                eq("TRACK123"), eq("SCAN123"), eq("Pending"), eq("ORDER123"), eq("Test Lab"), eq("TEST_USER"),
-                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)),
-                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)),
-                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)),
-                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                "TRACK123", "SCAN123", "Pending", "ORDER123", "Test Lab", "TEST_USER",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -624,15 +872,20 @@ class InboundShipmentServiceTest {
                 .status("Pending")
                 .page(0)
                 .size(10)
+                .view(ShipmentView.FULL)
                 .build();
 
         List<InboundShipment> shipments = Arrays.asList(testShipment);
         Page<InboundShipment> page = new PageImpl<>(shipments, PageRequest.of(0, 10), 1);
         
-        when(repository.searchShipments(
-                eq("TRACK"), isNull(), eq("Pending"), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                "TRACK", null, "Pending", null, null, null,
+                null, null,
+                null, null,
+                null, null,
+                null, null),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -656,17 +909,20 @@ class InboundShipmentServiceTest {
                 .scanDateTo(LocalDate.of(2024, 6, 30))
                 .page(0)
                 .size(50)
+                .view(ShipmentView.FULL)
                 .build();
 
         List<InboundShipment> shipments = Arrays.asList(testShipment);
         Page<InboundShipment> page = new PageImpl<>(shipments, PageRequest.of(0, 50), 1);
         
-        when(repository.searchShipments(
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                eq(LocalDate.of(2024, 6, 1)), eq(LocalDate.of(2024, 6, 30)),
-                eq(LocalDate.of(2024, 6, 1)), eq(LocalDate.of(2024, 6, 30)),
-                isNull(), isNull(), isNull(), isNull(),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                null, null, null, null, null, null,
+                LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30),
+                LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30),
+                null, null,
+                null, null),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -687,14 +943,19 @@ class InboundShipmentServiceTest {
                 .trackingNumber("NONEXISTENT")
                 .page(0)
                 .size(20)
+                .view(ShipmentView.FULL)
                 .build();
 
         Page<InboundShipment> page = new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 20), 0);
         
-        when(repository.searchShipments(
-                eq("NONEXISTENT"), isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                "NONEXISTENT", null, null, null, null, null,
+                null, null,
+                null, null,
+                null, null,
+                null, null),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -718,15 +979,20 @@ class InboundShipmentServiceTest {
                 .trackingNumber("TRACK")
                 .page(1)
                 .size(5)
+                .view(ShipmentView.FULL)
                 .build();
 
         List<InboundShipment> shipments = Arrays.asList(testShipment);
         Page<InboundShipment> page = new PageImpl<>(shipments, PageRequest.of(1, 5), 15);
         
-        when(repository.searchShipments(
-                eq("TRACK"), isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                "TRACK", null, null, null, null, null,
+                null, null,
+                null, null,
+                null, null,
+                null, null),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -741,6 +1007,202 @@ class InboundShipmentServiceTest {
         assertEquals(5, response.getPageSize());
         assertTrue(response.isHasNext());
         assertTrue(response.isHasPrevious());
+        assertEquals(1L, response.getNextCursor());
+        assertEquals(InboundShipmentSearchResponse.CountMode.EXACT, response.getCountMode());
+    }
+
+    @Test
+    void searchShipments_ByDefault_ShouldReturnListRowsOnly() {
+        ShipmentListRow row = new ShipmentListRow(42L, "TRACK123", "Test Client", "Pending", "Test Lab", null);
+        when(repositoryImpl.search(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(ShipmentListRow.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(row), PageRequest.of(0, 1), 3));
+
+        InboundShipmentSearchResponse response = service.searchShipments(
+                InboundShipmentSearchRequest.builder().status("Pending").size(1).build());
+
+        assertEquals(Arrays.asList(row), response.getRows());
+        assertNull(response.getShipments());
+        assertEquals(42L, response.getNextCursor());
+        verify(repositoryImpl, never()).search(any(), any(), eq(InboundShipment.class));
+    }
+
+    @Test
+    void getRecentShipmentRows_WithoutCursor_ShouldSeekFromNewestRow() {
+        when(repositoryImpl.findRecentRows(Long.MAX_VALUE, 20000)).thenReturn(Collections.emptyList());
+
+        assertTrue(service.getRecentShipmentRows(20000, null).isEmpty());
+        verify(repository, never()).findRecentShipments(anyInt());
+    }
+
+    @Test
+    void searchShipments_WithCountModeNone_ShouldReturnSliceWithoutCounting() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .status("Pending")
+                .page(1)
+                .size(5)
+                .countMode(InboundShipmentSearchResponse.CountMode.NONE)
+                .view(ShipmentView.FULL)
+                .build();
+        when(repositoryImpl.searchSlice(any(ShipmentSearchCriteria.class), eq(PageRequest.of(1, 5)), eq(InboundShipment.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testShipment), PageRequest.of(1, 5), true));
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(InboundShipmentSearchResponse.CountMode.NONE, response.getCountMode());
+        assertEquals(InboundShipmentSearchResponse.UNCOUNTED, response.getTotalElements());
+        assertEquals(InboundShipmentSearchResponse.UNCOUNTED, response.getTotalPages());
+        assertTrue(response.isHasNext());
+        assertTrue(response.isHasPrevious());
+        verify(repositoryImpl, never()).search(any(), any(), any());
+        verify(repositoryImpl, never()).countAtMost(any(), anyLong());
+    }
+
+    @Test
+    void searchShipments_WithCountModeEstimated_ShouldReportCappedTotal() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .size(20)
+                .countMode(InboundShipmentSearchResponse.CountMode.ESTIMATED)
+                .view(ShipmentView.FULL)
+                .build();
+        when(repositoryImpl.searchSlice(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testShipment), PageRequest.of(0, 20), true));
+        when(repositoryImpl.countAtMost(any(ShipmentSearchCriteria.class), eq(10_000L))).thenReturn(10_000L);
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(InboundShipmentSearchResponse.CountMode.ESTIMATED, response.getCountMode());
+        assertEquals(10_000, response.getTotalElements());
+        assertEquals(500, response.getTotalPages());
+        assertTrue(response.isTotalCapped());
+    }
+
+    @Test
+    void searchShipments_WithCountModeWindowed_ShouldCountOnlyAFewPagesAhead() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .page(2)
+                .size(10)
+                .countMode(InboundShipmentSearchResponse.CountMode.WINDOWED)
+                .view(ShipmentView.FULL)
+                .build();
+        when(repositoryImpl.searchSlice(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testShipment), PageRequest.of(2, 10), true));
+        when(repositoryImpl.countAtMost(any(ShipmentSearchCriteria.class), eq(121L))).thenReturn(57L);
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(57, response.getTotalElements());
+        assertEquals(6, response.getTotalPages());
+        assertFalse(response.isTotalCapped());
+    }
+
+    @Test
+    void searchShipments_WithCappedCountOnLastPage_ShouldNotCount() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .page(1)
+                .size(10)
+                .countMode(InboundShipmentSearchResponse.CountMode.ESTIMATED)
+                .view(ShipmentView.FULL)
+                .build();
+        when(repositoryImpl.searchSlice(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class)))
+                .thenReturn(new SliceImpl<>(Arrays.asList(testShipment), PageRequest.of(1, 10), false));
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(11, response.getTotalElements());
+        assertFalse(response.isTotalCapped());
+        verify(repositoryImpl, never()).countAtMost(any(), anyLong());
+    }
+
+    @Test
+    void searchShipments_WithCursor_ShouldSeekWithoutCounting() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .status("Pending")
+                .size(2)
+                .after(500L)
+                .view(ShipmentView.FULL)
+                .build();
+        List<InboundShipment> rows = Arrays.asList(
+                InboundShipment.builder().rowId(499L).build(),
+                InboundShipment.builder().rowId(420L).build(),
+                InboundShipment.builder().rowId(407L).build());
+        when(repositoryImpl.seek(argThat(criteria -> Long.valueOf(500L).equals(criteria.getAfterRowId())
+                && "Pending".equals(criteria.getStatus())), eq(3), eq(InboundShipment.class))).thenReturn(rows);
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(2, response.getShipments().size());
+        assertTrue(response.isHasNext());
+        assertEquals(420L, response.getNextCursor());
+        assertEquals(InboundShipmentSearchResponse.UNCOUNTED, response.getTotalElements());
+        assertEquals(InboundShipmentSearchResponse.CountMode.NONE, response.getCountMode());
+        verify(repositoryImpl, never()).search(any(), any(), any());
+    }
+
+    @Test
+    void searchShipments_WithCursorOnLastPage_ShouldHaveNoNextCursor() {
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
+                .size(2)
+                .after(10L)
+                .view(ShipmentView.FULL)
+                .build();
+        when(repositoryImpl.seek(any(ShipmentSearchCriteria.class), eq(3), eq(InboundShipment.class)))
+                .thenReturn(Arrays.asList(InboundShipment.builder().rowId(4L).build()));
+
+        InboundShipmentSearchResponse response = service.searchShipments(searchRequest);
+
+        assertEquals(1, response.getShipments().size());
+        assertFalse(response.isHasNext());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    void getShipmentsByClient_WithoutCursor_ShouldSeekFromNewestRow() {
+        when(repository.findByClientBefore("Test Client", Long.MAX_VALUE, 50)).thenReturn(Arrays.asList(testShipment));
+
+        List<InboundShipment> result = service.getShipmentsByClient("Test Client", null, 50);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getRecentShipments_WithCursor_ShouldSeekBelowCursor() {
+        when(repository.findRecentShipmentsBefore(900L, 10)).thenReturn(Arrays.asList(testShipment));
+
+        List<InboundShipment> result = service.getRecentShipments(10, 900L);
+
+        assertEquals(1, result.size());
+        verify(repository, never()).findRecentShipments(anyInt());
+    }
+
+    @Test
+    void searchShipments_RepeatedIdenticalSearch_ShouldBeServedFromCache() {
+        Page<InboundShipment> page = new PageImpl<>(Arrays.asList(testShipment), PageRequest.of(0, 20), 1);
+        when(repositoryImpl.search(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class))).thenReturn(page);
+
+        InboundShipmentSearchResponse first = service.searchShipments(
+                InboundShipmentSearchRequest.builder().trackingNumber("track").view(ShipmentView.FULL).build());
+        InboundShipmentSearchResponse second = service.searchShipments(
+                InboundShipmentSearchRequest.builder().trackingNumber("TRACK").view(ShipmentView.FULL).build());
+
+        assertSame(first, second);
+        verify(repositoryImpl, times(1)).search(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class));
+        assertEquals(1, service.getSearchCacheStats().getHits());
+        assertEquals(1, service.getSearchCacheStats().getMisses());
+    }
+
+    @Test
+    void searchShipments_AfterShipmentWrite_ShouldQueryAgain() {
+        Page<InboundShipment> page = new PageImpl<>(Arrays.asList(testShipment), PageRequest.of(0, 20), 1);
+        when(repositoryImpl.search(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class))).thenReturn(page);
+        when(repository.existsById(1L)).thenReturn(true);
+        InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder().status("Pending").view(ShipmentView.FULL).build();
+
+        service.searchShipments(searchRequest);
+        service.deleteShipment(1L);
+        service.searchShipments(searchRequest);
+
+        verify(repositoryImpl, times(2)).search(any(ShipmentSearchCriteria.class), any(Pageable.class), eq(InboundShipment.class));
+        verify(searchResultCache).invalidateAll();
     }
 
     @Test
@@ -749,15 +1211,20 @@ class InboundShipmentServiceTest {
         InboundShipmentSearchRequest searchRequest = InboundShipmentSearchRequest.builder()
                 .page(0)
                 .size(20)
+                .view(ShipmentView.FULL)
                 .build();
 
         List<InboundShipment> shipments = Arrays.asList(testShipment);
         Page<InboundShipment> page = new PageImpl<>(shipments, PageRequest.of(0, 20), 1);
         
-        when(repository.searchShipments(
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
-                any(Pageable.class)
+        when(repositoryImpl.search(criteriaMatching(
+                null, null, null, null, null, null,
+                null, null,
+                null, null,
+                null, null,
+                null, null),
+                any(Pageable.class),
+                eq(InboundShipment.class)
         )).thenReturn(page);
 
         // Act
@@ -768,4 +1235,52 @@ class InboundShipmentServiceTest {
         assertEquals(1, response.getShipments().size());
         assertEquals(1, response.getTotalElements());
     }
-} 
\ No newline at end of file
+
+    private static ShipmentSearchCriteria criteriaMatching(String trackingNumber, String scannedNumber, String status,
+                                                           String orderNumber, String lab, String scanUser,
+                                                           LocalDate shipDateFrom, LocalDate shipDateTo,
+                                                           LocalDate scanDateFrom, LocalDate scanDateTo,
+                                                           LocalDate emailReceiveDatetimeFrom, LocalDate emailReceiveDatetimeTo,
+                                                           LocalDate lastUpdateDatetimeFrom, LocalDate lastUpdateDatetimeTo) {
+        return argThat(criteria -> criteria.getClientName() == null
+                && criteria.getAfterRowId() == null
+                && Objects.equals(trackingNumber, criteria.getTrackingNumber())
+                && Objects.equals(scannedNumber, criteria.getScannedNumber())
+                && Objects.equals(status, criteria.getStatus())
+                && Objects.equals(orderNumber, criteria.getOrderNumber())
+                && Objects.equals(lab, criteria.getLab())
+                && Objects.equals(scanUser, criteria.getScanUser())
+                && Objects.equals(shipDateFrom, criteria.getShipDateFrom())
+                && Objects.equals(shipDateTo, criteria.getShipDateTo())
+                && Objects.equals(scanDateFrom, criteria.getScanDateFrom())
+                && Objects.equals(scanDateTo, criteria.getScanDateTo())
+                && Objects.equals(emailReceiveDatetimeFrom, criteria.getEmailReceiveDatetimeFrom())
+                && Objects.equals(emailReceiveDatetimeTo, criteria.getEmailReceiveDatetimeTo())
+                && Objects.equals(lastUpdateDatetimeFrom, criteria.getLastUpdateDatetimeFrom())
+                && Objects.equals(lastUpdateDatetimeTo, criteria.getLastUpdateDatetimeTo()));
+    }
+
+    private static InboundShipmentScanMatch scanMatch(Integer item, Long rowId, String trackingNumber, LocalDateTime scanTime) {
+        return new InboundShipmentScanMatch() {
+            @Override
+            public Integer getItem() {
+                return item;
+            }
+
+            @Override
+            public Long getRowId() {
+                return rowId;
+            }
+
+            @Override
+            public String getTrackingNumber() {
+                return trackingNumber;
+            }
+
+            @Override
+            public LocalDateTime getScanTime() {
+                return scanTime;
+            }
+        };
+    }
+}
\ No newline at end of file
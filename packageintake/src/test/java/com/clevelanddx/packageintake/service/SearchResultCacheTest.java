@@ -0,0 +1,82 @@
+package com.clevelanddx.packageintake.service;
+
+import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse;
+import com.clevelanddx.packageintake.dto.InboundShipmentSearchResponse.CountMode;
+import com.clevelanddx.packageintake.dto.ShipmentView;
+import com.clevelanddx.packageintake.repository.ShipmentSearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    @Test
+    void key_ShouldIgnoreCaseButNotBlankVersusMissingFilters() {
+        List<Object> lower = SearchResultCache.key(ShipmentSearchCriteria.builder().clientName("acme").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        List<Object> upper = SearchResultCache.key(ShipmentSearchCriteria.builder().clientName("ACME").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        List<Object> blank = SearchResultCache.key(ShipmentSearchCriteria.builder().clientName("").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        List<Object> none = SearchResultCache.key(ShipmentSearchCriteria.builder().build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+
+        assertEquals(lower, upper);
+        assertNotEquals(blank, none);
+    }
+
+    @Test
+    void key_ShouldDistinguishPagesDatesCountModesAndViews() {
+        ShipmentSearchCriteria criteria = ShipmentSearchCriteria.builder().shipDateFrom(LocalDate.of(2024, 6, 1)).build();
+
+        assertNotEquals(SearchResultCache.key(criteria, 0, 20, CountMode.EXACT, ShipmentView.LIST), SearchResultCache.key(criteria, 1, 20, CountMode.EXACT, ShipmentView.LIST));
+        assertNotEquals(SearchResultCache.key(criteria, 0, 20, CountMode.EXACT, ShipmentView.LIST),
+                SearchResultCache.key(ShipmentSearchCriteria.builder().shipDateFrom(LocalDate.of(2024, 6, 2)).build(), 0, 20, CountMode.EXACT, ShipmentView.LIST));
+        assertNotEquals(SearchResultCache.key(criteria, 0, 20, CountMode.EXACT, ShipmentView.LIST), SearchResultCache.key(criteria, 0, 20, CountMode.NONE, ShipmentView.LIST));
+        assertNotEquals(SearchResultCache.key(criteria, 0, 20, CountMode.EXACT, ShipmentView.LIST), SearchResultCache.key(criteria, 0, 20, CountMode.EXACT, ShipmentView.FULL));
+    }
+
+    @Test
+    void get_ShouldReturnCachedResponseUntilExpired() throws InterruptedException {
+        SearchResultCache cache = new SearchResultCache(50, 10);
+        List<Object> key = SearchResultCache.key(ShipmentSearchCriteria.builder().status("Pending").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        InboundShipmentSearchResponse response = InboundShipmentSearchResponse.builder().build();
+
+        cache.put(key, response, cache.generation());
+
+        assertSame(response, cache.get(key));
+        Thread.sleep(80);
+        assertNull(cache.get(key));
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void put_WhenInvalidatedDuringSearch_ShouldNotCacheStaleResponse() {
+        SearchResultCache cache = new SearchResultCache(60000, 10);
+        List<Object> key = SearchResultCache.key(ShipmentSearchCriteria.builder().build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        long generation = cache.generation();
+
+        cache.invalidateAll();
+        cache.put(key, InboundShipmentSearchResponse.builder().build(), generation);
+
+        assertNull(cache.get(key));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsedBeyondMaxEntries() {
+        SearchResultCache cache = new SearchResultCache(60000, 2);
+        List<Object> first = SearchResultCache.key(ShipmentSearchCriteria.builder().lab("A").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        List<Object> second = SearchResultCache.key(ShipmentSearchCriteria.builder().lab("B").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+        List<Object> third = SearchResultCache.key(ShipmentSearchCriteria.builder().lab("C").build(), 0, 20, CountMode.EXACT, ShipmentView.LIST);
+
+        cache.put(first, InboundShipmentSearchResponse.builder().build(), cache.generation());
+        cache.put(second, InboundShipmentSearchResponse.builder().build(), cache.generation());
+        cache.get(first);
+        cache.put(third, InboundShipmentSearchResponse.builder().build(), cache.generation());
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertEquals(2, cache.stats().getSize());
+    }
+}
@@ -0,0 +1,110 @@
+package com.clevelanddx.packageintake.service;
+
+import com.clevelanddx.packageintake.config.JacksonConfig;
+import com.clevelanddx.packageintake.dto.ClientDTO;
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import com.clevelanddx.packageintake.service.barcode.BarcodeDecoderPipeline;
+import com.clevelanddx.packageintake.service.barcode.FedExBarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.Gs1BarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.UpsBarcodeDecoder;
+import com.clevelanddx.packageintake.service.barcode.UspsBarcodeDecoder;
+import com.clevelanddx.packageintake.service.index.DistinctShipmentValues;
+import com.clevelanddx.packageintake.service.index.ScanNegativeCache;
+import com.clevelanddx.packageintake.service.index.TrackingNumberIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupTest {
+
+    @Mock
+    private ClientCacheService clientCacheService;
+
+    @Mock
+    private InboundShipmentReferenceService referenceService;
+
+    @Mock
+    private DistinctShipmentValues distinctValues;
+
+    @Mock
+    private TrackingNumberIndex trackingNumberIndex;
+
+    @Mock
+    private ScanNegativeCache scanNegativeCache;
+
+    @Mock
+    private InboundShipmentRepository repository;
+
+    private final BarcodeDecoderPipeline barcodeDecoderPipeline = new BarcodeDecoderPipeline(Arrays.asList(
+            new UpsBarcodeDecoder(), new UspsBarcodeDecoder(), new FedExBarcodeDecoder(), new Gs1BarcodeDecoder()));
+
+    private StartupWarmup warmup(boolean enabled, int iterations) {
+        return new StartupWarmup(clientCacheService, referenceService, distinctValues, trackingNumberIndex,
+                scanNegativeCache, barcodeDecoderPipeline, repository, new JacksonConfig().objectMapper(),
+                enabled, iterations);
+    }
+
+    @Test
+    void warmUp_ShouldPreloadPrepareAndIterateWithoutWriting() {
+        InboundShipment shipment = new InboundShipment();
+        shipment.setRowId(7L);
+        shipment.setTrackingNumber("1Z999AA10123456784");
+        shipment.setLastUpdateDatetime(LocalDateTime.of(2026, 10, 1, 8, 30));
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(distinctValues.isReady()).thenReturn(true);
+        when(clientCacheService.getAllClients()).thenReturn(List.of(ClientDTO.builder().id(1L).client("Cleveland Clinic").build()));
+        when(repository.findRecentShipments(anyInt())).thenReturn(List.of(shipment));
+
+        warmup(true, 50).warmUp();
+
+        verify(clientCacheService, times(50)).search(eq("Cle"), eq(10));
+        verify(repository).findScanMatches("[]");
+        verify(repository).findFirstByScannedNumberOrTrackingNumberIn(eq(StartupWarmup.SENTINEL), anyCollection());
+        verify(trackingNumberIndex, atLeastOnce()).findRowIdsByTrackingNumbers(List.of("1Z999AA10123456784"));
+        verify(trackingNumberIndex, never()).load();
+        verify(distinctValues, never()).load();
+        verify(repository, never()).stampScans(any(), any(), any(), any());
+        verify(repository, never()).save(any());
+        verify(scanNegativeCache, never()).recordMiss(any(), anyLong());
+    }
+
+    @Test
+    void warmUp_WhenIndexesAreNotLoaded_ShouldLoadThem() {
+        when(repository.findRecentShipments(anyInt())).thenReturn(List.of());
+
+        warmup(true, 1).warmUp();
+
+        verify(trackingNumberIndex).load();
+        verify(distinctValues).load();
+    }
+
+    @Test
+    void warmUp_WhenAPhaseFails_ShouldContinueWithTheNext() {
+        when(trackingNumberIndex.isReady()).thenReturn(true);
+        when(distinctValues.isReady()).thenReturn(true);
+        when(repository.findById(anyLong())).thenThrow(new IllegalStateException("database unavailable"));
+
+        warmup(true, 5).warmUp();
+
+        verify(repository, never()).findRecentShipments(anyInt());
+        verify(clientCacheService, times(5)).search(anyString(), eq(10));
+    }
+
+    @Test
+    void warmUp_WhenDisabled_ShouldDoNothing() {
+        warmup(false, 10000).warmUp();
+
+        verifyNoInteractions(clientCacheService, referenceService, distinctValues, trackingNumberIndex,
+                scanNegativeCache, repository);
+    }
+}
@@ -0,0 +1,81 @@
+package com.clevelanddx.packageintake.service.barcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BarcodeDecoderPipelineTest {
+
+    private final BarcodeDecoderPipeline pipeline = new BarcodeDecoderPipeline(Arrays.asList(
+            new UpsBarcodeDecoder(), new UspsBarcodeDecoder(), new FedExBarcodeDecoder(), new Gs1BarcodeDecoder()));
+
+    @Test
+    void decode_WhenUpsTrackingNumber_ShouldReturnIt() {
+        BarcodeDecodeResult result = pipeline.decode("1z999aa10123456784");
+
+        assertTrue(result.isDecoded());
+        assertEquals("UPS", result.getCarrier());
+        assertEquals(List.of("1Z999AA10123456784"), result.getTrackingNumbers());
+    }
+
+    @Test
+    void decode_WhenUpsCheckDigitInvalid_ShouldBeMalformed() {
+        BarcodeDecodeResult result = pipeline.decode("1Z999AA10123456785");
+
+        assertTrue(result.isMalformed());
+        assertEquals("UPS", result.getCarrier());
+    }
+
+    @Test
+    void decode_WhenUpsNumberIsOnlyPartOfThePayload_ShouldBeUnrecognized() {
+        BarcodeDecodeResult result = pipeline.decode("4204411391Z999AA10123456785");
+
+        assertFalse(result.isDecoded());
+        assertFalse(result.isMalformed());
+    }
+
+    @Test
+    void decode_WhenUspsRoutingPrefixed_ShouldStripZipCode() {
+        BarcodeDecodeResult result = pipeline.decode("]C14204411396129400111899223344556677");
+
+        assertTrue(result.isDecoded());
+        assertEquals("USPS", result.getCarrier());
+        assertEquals(List.of("9400111899223344556677"), result.getTrackingNumbers());
+    }
+
+    @Test
+    void decode_WhenGroupSeparatorPresent_ShouldIgnoreIt() {
+        BarcodeDecodeResult result = pipeline.decode("42044113\u001D9400111899223344556677");
+
+        assertEquals(List.of("9400111899223344556677"), result.getTrackingNumbers());
+    }
+
+    @Test
+    void decode_WhenFedExLabelBarcode_ShouldExtractTrackingNumber() {
+        assertEquals(List.of("123456789012343"), pipeline.decode("9600000123456789012343").getTrackingNumbers());
+        assertEquals(List.of("987654321010"), pipeline.decode("0000000000000000000000987654321010").getTrackingNumbers());
+    }
+
+    @Test
+    void decode_WhenSscc_ShouldMatchWithAndWithoutApplicationIdentifier() {
+        BarcodeDecodeResult result = pipeline.decode("00001234567890123452");
+
+        assertEquals("GS1", result.getCarrier());
+        assertEquals(List.of("001234567890123452", "00001234567890123452"), result.getTrackingNumbers());
+        assertTrue(pipeline.decode("00001234567890123450").isMalformed());
+        assertFalse(pipeline.decode("000012345678901234501234").isMalformed());
+    }
+
+    @Test
+    void decode_WhenNoLayoutMatches_ShouldBeUnrecognized() {
+        assertFalse(pipeline.decode("420441139612TRACK123").isDecoded());
+        assertFalse(pipeline.decode("420441139612TRACK123").isMalformed());
+        assertFalse(pipeline.decode("123456789012345678901234567890").isDecoded());
+        // Bare FedEx-length numbers go through the substring lookup, which also matches them exactly
+        assertFalse(pipeline.decode("123456789012").isDecoded());
+        assertFalse(pipeline.decode(null).isDecoded());
+    }
+}
@@ -0,0 +1,67 @@
+package com.clevelanddx.packageintake.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientNameIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+            "Akron Children's", "Cleveland Clinic", "Clinical Labs of Ohio", "Mercy Health", null,
+            "Ohio Clinic Partners", "Summa Clinic");
+
+    @Test
+    void search_ShouldRankWholeNameThenPrefixThenWordThenInfix() {
+        ClientNameIndex index = ClientNameIndex.build(
+                List.of("Akron Biclinic", "Clinic", "Clinical Labs", "Ohio Clinic Partners", "Summa Clinic"));
+
+        assertArrayEquals(new int[] {1, 2, 3, 4, 0}, index.search("CLINIC", 0));
+        assertArrayEquals(new int[] {1, 2}, index.search("clinic", 2));
+    }
+
+    @Test
+    void search_ShouldMatchShortTermsAndIgnoreCaseAndSurroundingSpaces() {
+        ClientNameIndex index = ClientNameIndex.build(NAMES);
+
+        assertArrayEquals(new int[] {2, 5, 6, 1}, index.search("  cLi ", 0));
+        assertArrayEquals(new int[] {5, 2}, index.search("oh", 0));
+        assertArrayEquals(new int[0], index.search("xyz", 0));
+        assertArrayEquals(new int[0], index.search("clinics", 0));
+    }
+
+    @Test
+    void search_WithBlankTerm_ShouldReturnEveryNameInOrderUpToLimit() {
+        ClientNameIndex index = ClientNameIndex.build(NAMES);
+
+        assertEquals(NAMES.size(), index.search(null, 0).length);
+        assertArrayEquals(new int[] {0, 1, 2}, index.search(" ", 3));
+    }
+
+    @Test
+    void search_ShouldAgreeWithLinearContainsScan() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            names.add("Client " + Integer.toString(i * 7919, 36) + (i % 3 == 0 ? " Labs" : " Health"));
+        }
+        ClientNameIndex index = ClientNameIndex.build(names);
+
+        for (String term : List.of("lab", "HEALTH", "nt 1", "a", "zz", "client 5", "4k")) {
+            int[] found = index.search(term, 0);
+            Arrays.sort(found);
+            String needle = term.toLowerCase(Locale.ROOT);
+            int[] expected = new int[names.size()];
+            int count = 0;
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).toLowerCase(Locale.ROOT).contains(needle)) {
+                    expected[count++] = i;
+                }
+            }
+            assertArrayEquals(Arrays.copyOf(expected, count), found, term);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.clevelanddx.packageintake.service.index;
+
+import com.clevelanddx.packageintake.model.InboundShipment;
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistinctShipmentValuesTest {
+
+    @Mock
+    private InboundShipmentRepository repository;
+
+    @Mock
+    private SnapshotStore snapshotStore;
+
+    @InjectMocks
+    private DistinctShipmentValues distinctValues;
+
+    @Test
+    void record_ShouldAddNewValuesInOrderWithoutQuerying() {
+        when(repository.findDistinctScanUsers()).thenReturn(List.of("alice", "carol"));
+        when(repository.findDistinctStatuses()).thenReturn(List.of("RECEIVED"));
+        distinctValues.load();
+
+        distinctValues.record(InboundShipment.builder().scanUser("Bob").status("Pending").build());
+        distinctValues.recordScanUser("ALICE");
+        distinctValues.recordScanUser("  ");
+
+        assertEquals(List.of("alice", "Bob", "carol"), distinctValues.scanUsers());
+        assertEquals(List.of("Pending", "RECEIVED"), distinctValues.statuses());
+        verify(repository, times(1)).findDistinctScanUsers();
+    }
+
+    @Test
+    void scanUsers_BeforeLoad_ShouldReturnRecordedValuesWithoutQuerying() {
+        distinctValues.recordScanUser("bob");
+
+        assertFalse(distinctValues.isReady());
+        assertEquals(List.of("bob"), distinctValues.scanUsers());
+        assertEquals(List.of(), distinctValues.statuses());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void resync_ShouldOnlyReadRowsChangedSinceTheLastRead() {
+        when(repository.findMaxRowId()).thenReturn(10L, 15L);
+        when(repository.findDistinctScanUsers()).thenReturn(List.of("alice"));
+        when(repository.findDistinctStatuses()).thenReturn(List.of());
+        when(repository.findDistinctScanUsersChangedSince(eq(10L), any())).thenReturn(List.of("dave"));
+        when(repository.findDistinctStatusesChangedSince(eq(10L), any())).thenReturn(List.of("Pending"));
+        distinctValues.load();
+        distinctValues.recordScanUser("bob");
+
+        distinctValues.resync();
+
+        assertEquals(List.of("alice", "bob", "dave"), distinctValues.scanUsers());
+        assertEquals(List.of("Pending"), distinctValues.statuses());
+        verify(repository, times(1)).findDistinctScanUsers();
+        verify(repository, times(1)).findDistinctStatuses();
+    }
+
+    @Test
+    void rebuild_ShouldDropValuesNoRowUsesAnyMore() {
+        when(repository.findDistinctScanUsers()).thenReturn(List.of("alice", "bob"), List.of("alice"));
+        when(repository.findDistinctStatuses()).thenReturn(List.of());
+        distinctValues.load();
+
+        distinctValues.rebuild();
+
+        assertEquals(List.of("alice"), distinctValues.scanUsers());
+    }
+
+    @Test
+    void load_FromSnapshot_ShouldOnlyQueryRowsChangedSinceIt(@TempDir Path directory) {
+        SnapshotStore store = new SnapshotStore(true, directory.toString());
+        when(repository.findMaxRowId()).thenReturn(10L, 12L);
+        when(repository.findDistinctScanUsers()).thenReturn(List.of("alice"));
+        when(repository.findDistinctStatuses()).thenReturn(List.of("RECEIVED"));
+        DistinctShipmentValues previous = new DistinctShipmentValues(repository, store);
+        previous.load();
+        previous.recordScanUser("bob");
+        previous.writeSnapshot();
+        when(repository.findDistinctScanUsersChangedSince(eq(10L), any())).thenReturn(List.of("carol"));
+        when(repository.findDistinctStatusesChangedSince(eq(10L), any())).thenReturn(List.of());
+
+        DistinctShipmentValues restarted = new DistinctShipmentValues(repository, store);
+        restarted.load();
+
+        assertTrue(restarted.isReady());
+        assertEquals(List.of("alice", "bob", "carol"), restarted.scanUsers());
+        assertEquals(List.of("RECEIVED"), restarted.statuses());
+        verify(repository, times(1)).findDistinctScanUsers();
+        verify(repository, times(1)).findDistinctStatuses();
+    }
+}
@@ -0,0 +1,85 @@
+package com.clevelanddx.packageintake.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanNegativeCacheTest {
+
+    @Test
+    void recordMiss_ShouldBeKnownUntilExpired() throws InterruptedException {
+        ScanNegativeCache cache = new ScanNegativeCache(50, 100, 0.01);
+
+        cache.recordMiss("OUTBOUND-LABEL-000042", cache.generation());
+
+        assertTrue(cache.isKnownMiss("outbound-label-000042", List.of()));
+        Thread.sleep(80);
+        assertFalse(cache.isKnownMiss("OUTBOUND-LABEL-000042", List.of()));
+        assertEquals(0, cache.missCount());
+    }
+
+    @Test
+    void recordMiss_WhenNumberAddedDuringLookup_ShouldNotCacheStaleMiss() {
+        ScanNegativeCache cache = new ScanNegativeCache(60000, 100, 0.01);
+        long generation = cache.generation();
+
+        cache.add("TRACK0000123", null);
+        cache.recordMiss("420441139612TRACK0000123", generation);
+
+        assertFalse(cache.isKnownMiss("420441139612TRACK0000123", List.of()));
+    }
+
+    @Test
+    void recordMiss_ShouldEvictLeastRecentlyUsedBeyondMaxEntries() {
+        ScanNegativeCache cache = new ScanNegativeCache(60000, 2, 0.01);
+
+        cache.recordMiss("MISS-0000000001", cache.generation());
+        cache.recordMiss("MISS-0000000002", cache.generation());
+        cache.isKnownMiss("MISS-0000000001", List.of());
+        cache.recordMiss("MISS-0000000003", cache.generation());
+
+        assertEquals(2, cache.missCount());
+        assertTrue(cache.isKnownMiss("MISS-0000000001", List.of()));
+        assertFalse(cache.isKnownMiss("MISS-0000000002", List.of()));
+    }
+
+    @Test
+    void isKnownMiss_ShouldOnlyTrustBloomFilterWhileSynced() {
+        ScanNegativeCache cache = new ScanNegativeCache(60000, 100, 0.01);
+        cache.rebuild(List.of("1Z999AA10123456784", "961234567890"), List.of("SCANNED-EXACT-0001"));
+
+        assertFalse(cache.isKnownMiss("OUTBOUND-LABEL-000042", List.of()));
+
+        cache.markSynced(System.currentTimeMillis());
+        assertTrue(cache.isKnownMiss("OUTBOUND-LABEL-000042", List.of()));
+        assertFalse(cache.isKnownMiss("9622001900961234567890", List.of()));
+        assertFalse(cache.isKnownMiss("SCANNED-EXACT-0001", List.of()));
+        assertFalse(cache.isKnownMiss("1Z999AA10123456784", List.of("1Z999AA10123456784")));
+        assertTrue(cache.isKnownMiss("1Z999AA10123456799", List.of("1Z999AA10123456799")));
+
+        cache.markSynced(System.currentTimeMillis() - 120000);
+        assertFalse(cache.isKnownMiss("OUTBOUND-LABEL-000042", List.of()));
+    }
+
+    @Test
+    void bloomFilter_ShouldHaveNoFalseNegatives() {
+        BloomFilter bloom = BloomFilter.create(10000, 0.01);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            values.add("TRACK" + (1000000007L * i));
+            bloom.put(values.get(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(bloom.mightContain(values.get(i)));
+            if (bloom.mightContain("OTHER" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,73 @@
+package com.clevelanddx.packageintake.service.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ShouldReturnWhatWasWritten() {
+        SnapshotStore store = new SnapshotStore(true, directory.resolve("nested").toString());
+        LocalDateTime watermark = LocalDateTime.of(2026, 10, 18, 6, 45, 12, 340_000_000);
+
+        store.write("sample", 3, out -> {
+            out.writeLong(42L);
+            SnapshotStore.writeDateTime(out, watermark);
+            SnapshotStore.writeString(out, "Z\u00fcrich Labs");
+            SnapshotStore.writeString(out, null);
+        });
+        ByteBuffer in = store.read("sample", 3).orElseThrow();
+
+        assertEquals(42L, in.getLong());
+        assertEquals(watermark, SnapshotStore.readDateTime(in));
+        assertEquals("Z\u00fcrich Labs", SnapshotStore.readString(in));
+        assertNull(SnapshotStore.readString(in));
+        assertFalse(in.hasRemaining());
+        assertFalse(Files.exists(directory.resolve("nested").resolve("sample.snapshot.tmp")));
+    }
+
+    @Test
+    void read_WhenMissingOrOtherVersion_ShouldReturnEmpty() {
+        SnapshotStore store = new SnapshotStore(true, directory.toString());
+        store.write("sample", 1, out -> out.writeLong(7L));
+
+        assertTrue(store.read("absent", 1).isEmpty());
+        assertTrue(store.read("sample", 2).isEmpty());
+    }
+
+    @Test
+    void read_WhenFileIsCorrupted_ShouldReturnEmpty() throws IOException {
+        SnapshotStore store = new SnapshotStore(true, directory.toString());
+        store.write("sample", 1, out -> out.writeLong(7L));
+        Path file = directory.resolve("sample.snapshot");
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[9] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertTrue(store.read("sample", 1).isEmpty());
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertTrue(store.read("sample", 1).isEmpty());
+    }
+
+    @Test
+    void write_WhenDisabled_ShouldNotCreateFiles() {
+        SnapshotStore store = new SnapshotStore(false, directory.resolve("off").toString());
+
+        store.write("sample", 1, out -> out.writeLong(7L));
+
+        assertFalse(Files.exists(directory.resolve("off")));
+        assertTrue(store.read("sample", 1).isEmpty());
+    }
+}
@@ -0,0 +1,169 @@
+package com.clevelanddx.packageintake.service.index;
+
+import com.clevelanddx.packageintake.repository.InboundShipmentRepository;
+import com.clevelanddx.packageintake.repository.InboundShipmentScanKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingNumberIndexTest {
+
+    @Mock
+    private InboundShipmentRepository repository;
+
+    @Spy
+    private ScanNegativeCache negativeCache = new ScanNegativeCache(60000, 100, 0.01);
+
+    @Mock
+    private SnapshotStore snapshotStore;
+
+    @InjectMocks
+    private TrackingNumberIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findScanKeysAfter(eq(0L), anyInt())).thenReturn(Arrays.asList(
+                scanKey(1L, "1Z999AA10123456784", null),
+                scanKey(2L, "961234567890", null),
+                scanKey(3L, "1Z999AA10123456784", null),
+                scanKey(4L, "ORDERLABEL01", "SCANNED-EXACT-0001")
+        ));
+        index.load();
+    }
+
+    @Test
+    void load_ShouldMarkIndexReady() {
+        assertTrue(index.isReady());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void findRowIds_WhenTrackingNumberEmbedded_ShouldReturnAllMatchesHighestFirst() {
+        List<Long> rowIds = index.findRowIds("420441139612%1Z999AA10123456784");
+
+        assertEquals(Arrays.asList(3L, 1L), rowIds);
+    }
+
+    @Test
+    void findRowIds_ShouldIgnoreCase() {
+        assertEquals(Collections.singletonList(2L), index.findRowIds("9622001900961234567890"));
+        assertEquals(Arrays.asList(3L, 1L), index.findRowIds("xx1z999aa10123456784xx"));
+    }
+
+    @Test
+    void findRowIds_WhenExactScannedNumberExists_ShouldPreferIt() {
+        assertEquals(Collections.singletonList(4L), index.findRowIds("scanned-exact-0001"));
+    }
+
+    @Test
+    void findRowIds_WhenScanTooShort_ShouldReturnEmpty() {
+        assertTrue(index.findRowIds("961234567").isEmpty());
+    }
+
+    @Test
+    void index_ShouldPickUpNewAndChangedTrackingNumbersBeforeRebuild() {
+        index.index(5L, "TBA123456789000", null);
+        index.index(1L, "1Z999AA10123456799", null);
+
+        assertEquals(Collections.singletonList(5L), index.findRowIds("XTBA123456789000X"));
+        assertEquals(Collections.singletonList(3L), index.findRowIds("1Z999AA10123456784"));
+        assertEquals(Collections.singletonList(1L), index.findRowIds("1Z999AA10123456799"));
+    }
+
+    @Test
+    void remove_ShouldDropRowFromResults() {
+        index.remove(3L);
+
+        assertEquals(Collections.singletonList(1L), index.findRowIds("1Z999AA10123456784"));
+    }
+
+    @Test
+    void findRowIdsByTrackingNumbers_ShouldOnlyMatchWholeTrackingNumbers() {
+        assertEquals(Arrays.asList(3L, 2L, 1L), index.findRowIdsByTrackingNumbers(List.of("1z999aa10123456784", "961234567890")));
+        assertEquals(Collections.emptyList(), index.findRowIdsByTrackingNumbers(List.of("420441139612961234567890")));
+    }
+
+    @Test
+    void findRowIdsByScannedNumber_ShouldNotFallBackToSubstringMatches() {
+        assertEquals(Collections.singletonList(4L), index.findRowIdsByScannedNumber("scanned-exact-0001"));
+        assertEquals(Collections.emptyList(), index.findRowIdsByScannedNumber("420441139612%1Z999AA10123456784"));
+    }
+
+    @Test
+    void load_ShouldLetNegativeCacheRuleOutUnknownScans() {
+        assertTrue(negativeCache.isKnownMiss("OUTBOUND-LABEL-000042", List.of()));
+        assertFalse(negativeCache.isKnownMiss("420441139612%1Z999AA10123456784", List.of()));
+        assertFalse(negativeCache.isKnownMiss("scanned-exact-0001", List.of()));
+    }
+
+    @Test
+    void index_ShouldEvictMissesTheNewTrackingNumberSatisfies() {
+        long generation = negativeCache.generation();
+        negativeCache.recordMiss("420441139612NEWTRACK0001", generation);
+
+        index.index(5L, "NEWTRACK0001", null);
+
+        assertFalse(negativeCache.isKnownMiss("420441139612NEWTRACK0001", List.of()));
+        assertEquals(Arrays.asList(5L), index.findRowIds("420441139612NEWTRACK0001"));
+    }
+
+    @Test
+    void load_FromSnapshot_ShouldOnlyReadRowsPastItsWatermark(@TempDir Path directory) {
+        SnapshotStore store = new SnapshotStore(true, directory.toString());
+        TrackingNumberIndex previous = new TrackingNumberIndex(repository, new ScanNegativeCache(60000, 100, 0.01), store);
+        previous.load();
+        previous.writeSnapshot();
+        when(repository.findScanKeysAfter(eq(4L), anyInt())).thenReturn(List.of(scanKey(5L, "TBA123456789000", null)));
+        when(repository.findScanKeysUpdatedSince(any())).thenReturn(List.of(scanKey(2L, "961234567890", "SCANNED-LATER-0002")));
+
+        TrackingNumberIndex restarted = new TrackingNumberIndex(repository, new ScanNegativeCache(60000, 100, 0.01), store);
+        restarted.load();
+
+        assertTrue(restarted.isReady());
+        assertEquals(5, restarted.size());
+        assertEquals(Arrays.asList(3L, 1L), restarted.findRowIds("420441139612%1Z999AA10123456784"));
+        assertEquals(Collections.singletonList(4L), restarted.findRowIdsByScannedNumber("scanned-exact-0001"));
+        assertEquals(Collections.singletonList(2L), restarted.findRowIdsByScannedNumber("scanned-later-0002"));
+        assertEquals(Collections.singletonList(5L), restarted.findRowIds("XTBA123456789000X"));
+        // Full reads only by setUp and by the index that wrote the snapshot
+        verify(repository, times(2)).findScanKeysAfter(eq(0L), anyInt());
+    }
+
+    private static InboundShipmentScanKey scanKey(Long rowId, String trackingNumber, String scannedNumber) {
+        return new InboundShipmentScanKey() {
+            @Override
+            public Long getRowId() {
+                return rowId;
+            }
+
+            @Override
+            public String getTrackingNumber() {
+                return trackingNumber;
+            }
+
+            @Override
+            public String getScannedNumber() {
+                return scannedNumber;
+            }
+        };
+    }
+}
@@ -75,6 +75,22 @@ else
     # Start the service
     echo "Starting service..."
     systemctl start packageintake
+
+    # Wait for the readiness probe, which turns UP only after the startup warm-up
+    ready=false
+    for i in $(seq 1 60); do
+        if curl -sf http://localhost:8080/actuator/health/readiness > /dev/null; then
+            echo "Service is ready"
+            ready=true
+            break
+        fi
+        sleep 5
+    done
+    if [ "$ready" != true ]; then
+        echo "Service did not become ready within 5 minutes"
+        systemctl status packageintake --no-pager || true
+        exit 1
+    fi
 fi
 
 # Check status